@@ -3,6 +3,7 @@ plugins {
     id("org.springframework.boot") version "3.2.3"
     id("io.spring.dependency-management") version "1.1.4"
     id("com.netflix.dgs.codegen") version "6.0.3"
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "the.oronco"
@@ -24,6 +25,8 @@ repositories {
 
 dependencies {
     implementation("org.springframework.boot:spring-boot-starter")
+    implementation("org.springframework.boot:spring-boot-starter-actuator")
+    runtimeOnly("io.micrometer:micrometer-registry-prometheus")
     compileOnly("org.projectlombok:lombok")
     developmentOnly("org.springframework.boot:spring-boot-devtools")
     annotationProcessor("org.projectlombok:lombok")
@@ -31,6 +34,7 @@ dependencies {
     implementation("com.netflix.graphql.dgs:graphql-dgs-spring-boot-starter")
     runtimeOnly("com.netflix.graphql.dgs:graphql-dgs-extended-scalars")
     implementation("com.netflix.graphql.dgs:graphql-dgs-extended-validation:8.3.1")
+    implementation("com.github.ben-manes.caffeine:caffeine")
 
     implementation("org.mapstruct:mapstruct:1.5.5.Final")
     annotationProcessor("org.mapstruct:mapstruct-processor:1.5.5.Final")
@@ -39,6 +43,9 @@ dependencies {
     testImplementation("org.springframework.boot:spring-boot-starter-test")
 
     implementation("org.jetbrains:annotations:24.0.0")
+
+    jmhAnnotationProcessor("org.projectlombok:lombok")
+    jmhCompileOnly("org.projectlombok:lombok")
 }
 
 dependencyManagement {
@@ -56,9 +63,25 @@ tasks.generateJava {
     schemaPaths.add("${projectDir}/src/main/resources/graphql-client")
     packageName = "the.oronco.graphqldynamicupdate.codegen"
     typeMapping = mutableMapOf(
-        "DateTime" to "java.time.OffsetDateTime"
+        "DateTime" to "java.time.OffsetDateTime",
+        "Long" to "java.lang.Long"
     )
     generateClient = true
     addGeneratedAnnotation = true
 }
 
+
+// ./gradlew jmh -PjmhIncludes=StoreBenchmark -PjmhThreads=8 -PjmhHeap=24g -PjmhProfilers=gc
+// the 10^7 datasets need a heap of several gigabytes, restrict the sizes with e.g. -PjmhSizes=1000,100000
+jmh {
+    (findProperty("jmhIncludes") as String?)?.let { includes = listOf(it) }
+    threads = (findProperty("jmhThreads") as String? ?: "1").toInt()
+    (findProperty("jmhThreadGroups") as String?)?.let { threadGroups = it.split(",").map(String::toInt) }
+    (findProperty("jmhProfilers") as String?)?.let { profilers = it.split(",") }
+    (findProperty("jmhSizes") as String?)?.let { benchmarkParameters.put("size", objects.listProperty<String>().value(it.split(","))) }
+    jvmArgs = listOf("-Xmx${findProperty("jmhHeap") ?: "16g"}")
+    fork = 1
+    warmupIterations = 3
+    iterations = 5
+    resultFormat = "JSON"
+}
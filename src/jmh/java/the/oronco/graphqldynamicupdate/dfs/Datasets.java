@@ -0,0 +1,78 @@
+package the.oronco.graphqldynamicupdate.dfs;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import the.oronco.graphqldynamicupdate.codegen.types.Material;
+import the.oronco.graphqldynamicupdate.codegen.types.Product;
+import the.oronco.graphqldynamicupdate.dfs.persistence.InMemoryJournal;
+
+/**
+ * Builds heap only {@link Store}s filled with a given number of products for the benchmarks.
+ *
+ * @author the_oronco@posteo.net
+ * @since 17/10/2026
+ */
+final class Datasets {
+    private static final int PRODUCTS_PER_MATERIAL = 100;
+
+    private Datasets() {
+    }
+
+    record Dataset(Store store, List<UUID> productIds, List<UUID> materialIds) {
+
+        UUID randomProductId(SplittableRandom random) {
+            return productIds.get(random.nextInt(productIds.size()));
+        }
+
+        /**
+         * @return {@code count} random product ids of which roughly {@code missingRatio} do not reference a product
+         */
+        List<UUID> randomProductIds(SplittableRandom random, int count, double missingRatio) {
+            var ids = new ArrayList<UUID>(count);
+            for (int i = 0; i < count; i++) {
+                ids.add(random.nextDouble() < missingRatio ? UUID.randomUUID() : randomProductId(random));
+            }
+            return ids;
+        }
+    }
+
+    static Dataset products(int size) {
+        return products(size, StoreLayout.OBJECTS);
+    }
+
+    static Dataset products(int size, StoreLayout layout) {
+        var store = new Store(new InMemoryJournal(), StoreMetrics.NONE, layout);
+        var now = OffsetDateTime.now();
+        var productIds = new ArrayList<UUID>(size);
+        var materialIds = new ArrayList<UUID>(size / PRODUCTS_PER_MATERIAL + 1);
+
+        Material material = null;
+        for (int i = 0; i < size; i++) {
+            if (i % PRODUCTS_PER_MATERIAL == 0) {
+                UUID materialId = UUID.randomUUID();
+                material = store.saveMaterial(Material.newBuilder()
+                                                      .id(materialId.toString())
+                                                      .name("material " + i)
+                                                      .description("benchmark material")
+                                                      .createdOn(now)
+                                                      .updatedOn(now)
+                                                      .build());
+                materialIds.add(materialId);
+            }
+            UUID productId = UUID.randomUUID();
+            store.saveProduct(Product.newBuilder()
+                                     .id(productId.toString())
+                                     .name("product " + i)
+                                     .description("benchmark product")
+                                     .createdOn(now)
+                                     .updatedOn(now)
+                                     .material(material)
+                                     .build());
+            productIds.add(productId);
+        }
+        return new Dataset(store, productIds, materialIds);
+    }
+}
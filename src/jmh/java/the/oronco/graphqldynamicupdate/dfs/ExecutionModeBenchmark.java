@@ -0,0 +1,109 @@
+package the.oronco.graphqldynamicupdate.dfs;
+
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.schema.DataFetcher;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import graphql.schema.idl.TypeRuntimeWiring;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Load comparison of the two execution modes under a store that blocks for {@code latencyMillis} on every call. One
+ * operation is a burst of {@code concurrency} simultaneous requests, each a query of three top level fields that each
+ * call the store once.
+ * <p>
+ * {@code platform} is the current model: every request occupies a thread of a pool as large as the default servlet
+ * container pool and fetches its fields one after the other. {@code virtual} runs every request on its own virtual
+ * thread with the {@link VirtualThreadInstrumentation}, as with {@code spring.threads.virtual.enabled=true}.
+ *
+ * @author the_oronco@posteo.net
+ * @since 17/10/2026
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class ExecutionModeBenchmark {
+    private static final int SERVLET_THREADS = 200;
+    private static final String SCHEMA = """
+            type Query {
+                products: Int
+                materials: Int
+                product: Int
+            }
+            """;
+    private static final String QUERY = "{ products materials product }";
+
+    @Param({"platform", "virtual"})
+    String mode;
+
+    @Param({"100", "1000", "10000"})
+    int concurrency;
+
+    @Param({"1", "10"})
+    int latencyMillis;
+
+    private ExecutorService requests;
+    private ExecutorService fetchers;
+    private GraphQL graphQL;
+
+    @Setup(Level.Trial)
+    public void build() {
+        var latency = Duration.ofMillis(latencyMillis);
+        DataFetcher<Integer> blockingStore = env -> {
+            Thread.sleep(latency);
+            return 1;
+        };
+        RuntimeWiring wiring = RuntimeWiring.newRuntimeWiring()
+                                            .type(TypeRuntimeWiring.newTypeWiring("Query")
+                                                                   .dataFetcher("products", blockingStore)
+                                                                   .dataFetcher("materials", blockingStore)
+                                                                   .dataFetcher("product", blockingStore))
+                                            .build();
+        GraphQLSchema schema = new SchemaGenerator().makeExecutableSchema(new SchemaParser().parse(SCHEMA), wiring);
+
+        boolean virtual = mode.equals("virtual");
+        requests = virtual ? Executors.newVirtualThreadPerTaskExecutor() : Executors.newFixedThreadPool(SERVLET_THREADS);
+        fetchers = Executors.newVirtualThreadPerTaskExecutor();
+        graphQL = GraphQL.newGraphQL(schema)
+                         .instrumentation(virtual ? new VirtualThreadInstrumentation(fetchers)
+                                                  : SimplePerformantInstrumentation.INSTANCE)
+                         .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void shutDown() {
+        requests.close();
+        fetchers.close();
+    }
+
+    @Benchmark
+    public List<ExecutionResult> burst() {
+        var results = new ArrayList<CompletableFuture<ExecutionResult>>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            results.add(CompletableFuture.supplyAsync(() -> graphQL.execute(QUERY), requests));
+        }
+        return results.stream()
+                      .map(CompletableFuture::join)
+                      .toList();
+    }
+}
@@ -0,0 +1,126 @@
+package the.oronco.graphqldynamicupdate.dfs;
+
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import graphql.schema.idl.TypeRuntimeWiring;
+import graphql.validation.rules.OnValidationErrorStrategy;
+import graphql.validation.rules.ValidationRules;
+import graphql.validation.schemawiring.ValidationSchemaWiring;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import the.oronco.graphqldynamicupdate.dfs.Datasets.Dataset;
+
+/**
+ * Executes operations whose only work is validating {@code @Exists} arguments, once for a single id and once for a
+ * list of ids, with and without the {@link ExistsBatchingInstrumentation}.
+ *
+ * @author the_oronco@posteo.net
+ * @since 17/10/2026
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ExistsConstraintBenchmark {
+    private static final String SCHEMA = """
+            directive @Exists(domainClass: String, name: String, message: String) on ARGUMENT_DEFINITION | INPUT_FIELD_DEFINITION
+
+            type Query {
+                product(id: ID! @Exists(name: "Product")): Boolean!
+                products(ids: [ID!]! @Exists(name: "Product")): Boolean!
+            }
+            """;
+    private static final String SINGLE = "query($id: ID!) { product(id: $id) }";
+    private static final String LIST = "query($ids: [ID!]!) { products(ids: $ids) }";
+
+    @State(Scope.Benchmark)
+    public static class Api {
+        @Param({"1000", "100000", "10000000"})
+        int size;
+
+        @Param({"false", "true"})
+        boolean batched;
+
+        Dataset dataset;
+        GraphQL graphQL;
+
+        @Setup(Level.Trial)
+        public void build() {
+            dataset = Datasets.products(size);
+            var registry = new SimpleMeterRegistry();
+            var existsConstraint = new ExistsConstraint(dataset.store(), registry);
+            var validationRules = ValidationRules.newValidationRules()
+                                                 .onValidationErrorStrategy(OnValidationErrorStrategy.RETURN_NULL)
+                                                 .addRule(existsConstraint)
+                                                 .build();
+            RuntimeWiring wiring = RuntimeWiring.newRuntimeWiring()
+                                                .directiveWiring(new ValidationSchemaWiring(validationRules))
+                                                .type(TypeRuntimeWiring.newTypeWiring("Query")
+                                                                       .dataFetcher("product", env -> true)
+                                                                       .dataFetcher("products", env -> true))
+                                                .build();
+            GraphQLSchema schema = new SchemaGenerator().makeExecutableSchema(new SchemaParser().parse(SCHEMA), wiring);
+            graphQL = GraphQL.newGraphQL(schema)
+                             .instrumentation(batched ? new ExistsBatchingInstrumentation(existsConstraint,
+                                                                                          dataset.store(),
+                                                                                          registry)
+                                                      : SimplePerformantInstrumentation.INSTANCE)
+                             .build();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Variables {
+        @Param({"1", "100", "10000"})
+        int listSize;
+
+        private final SplittableRandom random = new SplittableRandom();
+        Map<String, Object> single;
+        Map<String, Object> list;
+
+        @Setup(Level.Iteration)
+        public void draw(Api api) {
+            single = Map.of("id",
+                            api.dataset.randomProductId(random)
+                                       .toString());
+            List<String> ids = api.dataset.randomProductIds(random, listSize, 0)
+                                          .stream()
+                                          .map(UUID::toString)
+                                          .toList();
+            list = Map.of("ids", ids);
+        }
+    }
+
+    @Benchmark
+    public ExecutionResult singleId(Api api, Variables variables) {
+        return api.graphQL.execute(ExecutionInput.newExecutionInput()
+                                                 .query(SINGLE)
+                                                 .variables(variables.single)
+                                                 .build());
+    }
+
+    @Benchmark
+    public ExecutionResult listOfIds(Api api, Variables variables) {
+        return api.graphQL.execute(ExecutionInput.newExecutionInput()
+                                                 .query(LIST)
+                                                 .variables(variables.list)
+                                                 .build());
+    }
+}
@@ -0,0 +1,70 @@
+package the.oronco.graphqldynamicupdate.dfs;
+
+import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import the.oronco.graphqldynamicupdate.codegen.types.Product;
+import the.oronco.graphqldynamicupdate.codegen.types.ProductUpdateIn;
+import the.oronco.graphqldynamicupdate.dfs.ProductDataFetcherer.ProductUpdater;
+
+/**
+ * The MapStruct mappings behind {@code updateProduct} and the {@link FieldPatcher} behind {@code partialUpdateProduct}.
+ *
+ * @author the_oronco@posteo.net
+ * @since 17/10/2026
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class MappingBenchmark {
+    private final ProductUpdater productUpdater = Mappers.getMapper(ProductUpdater.class);
+    private final FieldPatcher<Product> patcher = FieldPatcher.of(Product.class, "name", "description");
+
+    private Product product;
+    private ProductUpdateIn update;
+    private Map<String, String> partialUpdate;
+
+    @Setup
+    public void prepare() {
+        product = Product.newBuilder()
+                         .id(UUID.randomUUID()
+                                 .toString())
+                         .name("knoif")
+                         .description("No running with knoifs!")
+                         .createdOn(OffsetDateTime.now())
+                         .updatedOn(OffsetDateTime.now())
+                         .material(Store.materialReference(UUID.randomUUID()))
+                         .build();
+        update = ProductUpdateIn.newBuilder()
+                                .name("spoon")
+                                .description("Running with spoons is fine.")
+                                .build();
+        partialUpdate = new HashMap<>();
+        partialUpdate.put("description", "Running with spoons is fine.");
+    }
+
+    @Benchmark
+    public Product updateWith() {
+        return productUpdater.updateWith(product, update);
+    }
+
+    @Benchmark
+    public ProductUpdateIn convert() {
+        return productUpdater.convert(product);
+    }
+
+    @Benchmark
+    public Product partialUpdate() {
+        return patcher.apply(product, partialUpdate);
+    }
+}
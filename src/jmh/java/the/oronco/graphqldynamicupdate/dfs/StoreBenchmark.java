@@ -0,0 +1,107 @@
+package the.oronco.graphqldynamicupdate.dfs;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import the.oronco.graphqldynamicupdate.codegen.types.Product;
+import the.oronco.graphqldynamicupdate.dfs.Datasets.Dataset;
+import the.oronco.graphqldynamicupdate.dfs.adt.Option;
+import the.oronco.graphqldynamicupdate.dfs.adt.Result;
+import the.oronco.graphqldynamicupdate.dfs.adt.Result.GOOD;
+
+/**
+ * Single lookups and bulk existence checks against a {@link Store} holding {@code size} products in either
+ * {@link StoreLayout}.
+ *
+ * @author the_oronco@posteo.net
+ * @since 17/10/2026
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StoreBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class StoreState {
+        @Param({"1000", "10000", "100000", "1000000", "10000000"})
+        int size;
+
+        @Param({"OBJECTS", "COMPACT"})
+        StoreLayout layout;
+
+        Dataset dataset;
+
+        @Setup(Level.Trial)
+        public void fill() {
+            dataset = Datasets.products(size, layout);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Keys {
+        private static final int RING_SIZE = 1 << 16;
+
+        @Param({"1000"})
+        int batchSize;
+
+        @Param({"0.0", "0.1"})
+        double missingRatio;
+
+        private final SplittableRandom random = new SplittableRandom();
+        private UUID[] ring;
+        private int next;
+        List<UUID> batch;
+
+        /**
+         * Draws the ids up front, so that picking one does not show up in the lookups.
+         */
+        @Setup(Level.Iteration)
+        public void draw(StoreState state) {
+            ring = state.dataset.randomProductIds(random, RING_SIZE, missingRatio)
+                                .toArray(UUID[]::new);
+            batch = state.dataset.randomProductIds(random, batchSize, missingRatio);
+        }
+
+        UUID nextId() {
+            return ring[next++ & (RING_SIZE - 1)];
+        }
+    }
+
+    @Benchmark
+    public Option<Product> findProductById(StoreState state, Keys keys) {
+        return state.dataset.store()
+                            .findProductById(keys.nextId());
+    }
+
+    /**
+     * A small query: opening a snapshot, reading the first page through it and closing it again.
+     */
+    @Benchmark
+    public Page<Product> firstPageInSnapshot(StoreState state) {
+        var store = state.dataset.store();
+        try (Snapshot snapshot = store.snapshot()) {
+            return store.findProductsPage(snapshot, Option.none(), 10);
+        }
+    }
+
+    @Benchmark
+    public boolean productExists(StoreState state, Keys keys) {
+        return state.dataset.store()
+                            .domainObjectsExistsByIdAndClass(keys.nextId(), Product.class);
+    }
+
+    @Benchmark
+    public Result<GOOD, List<UUID>> productsExist(StoreState state, Keys keys) {
+        return state.dataset.store()
+                            .domainObjectsExistByIdsAndClass(keys.batch, Product.class);
+    }
+}
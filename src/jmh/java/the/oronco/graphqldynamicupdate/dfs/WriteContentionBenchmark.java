@@ -0,0 +1,126 @@
+package the.oronco.graphqldynamicupdate.dfs;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import the.oronco.graphqldynamicupdate.codegen.types.Failure;
+import the.oronco.graphqldynamicupdate.codegen.types.Product;
+import the.oronco.graphqldynamicupdate.dfs.Datasets.Dataset;
+import the.oronco.graphqldynamicupdate.dfs.adt.Option;
+import the.oronco.graphqldynamicupdate.dfs.adt.OptionLong;
+import the.oronco.graphqldynamicupdate.dfs.adt.Result;
+
+/**
+ * Writers of a {@link Store} contending with each other and with readers. Each group runs its methods on separate
+ * threads against the same store, so the striped locks, the commit clock and the reverse index of the materials are
+ * all shared:
+ * <ul>
+ * <li>{@code saveDelete}: new products are saved while the products saved before are deleted in small batches</li>
+ * <li>{@code updateRead}: products are updated while they are read by id</li>
+ * </ul>
+ * Every method of a group runs on one thread, more threads per method are given with e.g.
+ * {@code -PjmhThreadGroups=4,4}.
+ *
+ * @author the_oronco@posteo.net
+ * @since 17/10/2026
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class WriteContentionBenchmark {
+    private static final int DELETE_BATCH = 16;
+
+    @State(Scope.Group)
+    public static class StoreState {
+        @Param({"10000", "1000000"})
+        int size;
+
+        Dataset dataset;
+        final Queue<UUID> saved = new ConcurrentLinkedQueue<>();
+
+        @Setup(Level.Trial)
+        public void fill() {
+            dataset = Datasets.products(size);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Writer {
+        private final SplittableRandom random = new SplittableRandom();
+        private final List<UUID> batch = new ArrayList<>(DELETE_BATCH);
+        private long round;
+
+        Product newProduct(Dataset dataset) {
+            var now = OffsetDateTime.now();
+            UUID materialId = dataset.materialIds()
+                                     .get(random.nextInt(dataset.materialIds()
+                                                                .size()));
+            return Product.newBuilder()
+                          .id(UUID.randomUUID()
+                                  .toString())
+                          .name("contended product")
+                          .description("benchmark product")
+                          .createdOn(now)
+                          .updatedOn(now)
+                          .material(Store.materialReference(materialId))
+                          .build();
+        }
+
+        VersionedUpdate<Product> rename(Dataset dataset) {
+            String name = "renamed " + round++;
+            return new VersionedUpdate<>(dataset.randomProductId(random), OptionLong.none(), product -> {
+                product.setName(name);
+                return product;
+            });
+        }
+    }
+
+    @Benchmark
+    @Group("saveDelete")
+    public Result<Product, Failure> saveProduct(StoreState state, Writer writer) {
+        var saved = state.dataset.store()
+                                 .saveProduct(writer.newProduct(state.dataset));
+        saved.inspect(product -> state.saved.add(UUID.fromString(product.getId())));
+        return saved;
+    }
+
+    @Benchmark
+    @Group("saveDelete")
+    public Result<List<Product>, Failure> deleteProducts(StoreState state, Writer writer) {
+        writer.batch.clear();
+        UUID id;
+        while (writer.batch.size() < DELETE_BATCH && (id = state.saved.poll()) != null) {
+            writer.batch.add(id);
+        }
+        return state.dataset.store()
+                            .deleteProducts(writer.batch);
+    }
+
+    @Benchmark
+    @Group("updateRead")
+    public Result<Product, Failure> updateProduct(StoreState state, Writer writer) {
+        return state.dataset.store()
+                            .updateProduct(writer.rename(state.dataset));
+    }
+
+    @Benchmark
+    @Group("updateRead")
+    public Option<Product> findProductById(StoreState state, Writer writer) {
+        return state.dataset.store()
+                            .findProductById(state.dataset.randomProductId(writer.random));
+    }
+}
@@ -0,0 +1,118 @@
+package the.oronco.graphqldynamicupdate.dfs.adt;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Typical chains of {@link Option} and {@link Result} combinators next to the equivalent chains on {@link Optional}.
+ * The chains start from a present or an absent value, so both paths of the combinators are measured.
+ * <p>
+ * Run with {@code -PjmhProfilers=gc} to check the allocations: an operation must not allocate more than the option or
+ * result it returns, so {@code resultGood} and all operations on an absent value have to stay at {@code 0 B/op}.
+ *
+ * @author the_oronco@posteo.net
+ * @since 17/10/2026
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class CombinatorBenchmark {
+    @Param({"true", "false"})
+    boolean present;
+
+    private String value;
+    private Option<String> option;
+    private Optional<String> optional;
+    private Result<String, String> result;
+
+    @Setup
+    public void prepare() {
+        value = present ? "steel" : null;
+        option = Option.from(value);
+        optional = Optional.ofNullable(value);
+        result = Result.from(value, "missing");
+    }
+
+    @Benchmark
+    public int optionChain() {
+        return Option.from(value)
+                     .filter(s -> !s.isEmpty())
+                     .map(String::length)
+                     .or(Option.none())
+                     .unwrapOr(-1);
+    }
+
+    @Benchmark
+    public int optionalChain() {
+        return Optional.ofNullable(value)
+                       .filter(s -> !s.isEmpty())
+                       .map(String::length)
+                       .or(Optional::empty)
+                       .orElse(-1);
+    }
+
+    @Benchmark
+    public int optionSwitch() {
+        return switch (Option.from(value)) {
+            case Option.Some<String> some -> some.value()
+                                                 .length();
+            case Option.None<String> ignored -> -1;
+        };
+    }
+
+    @Benchmark
+    public int resultChain() {
+        return Result.from(value, "missing")
+                     .map(String::length)
+                     .mapErr(String::length)
+                     .unwrapOr(-1);
+    }
+
+    @Benchmark
+    public Result<Result.GOOD, String> resultGood() {
+        return value != null ? Result.good() : Result.err("missing");
+    }
+
+    @Benchmark
+    public int optionalToResult() {
+        return Option.from(value)
+                     .okOr("missing")
+                     .map(String::length)
+                     .unwrapOr(-1);
+    }
+
+    @Benchmark
+    public Option<String> optionFromOptional() {
+        return Option.optionFrom(optional);
+    }
+
+    @Benchmark
+    public Option<String> optionOr() {
+        return option.or(Option.none())
+                     .filter(s -> true);
+    }
+
+    @Benchmark
+    public Result<String, Integer> resultMapErrOfOk() {
+        return result.isOk() ? result.mapErr(String::length) : Result.err(0);
+    }
+
+    @Benchmark
+    public int optionIterator() {
+        int length = 0;
+        var values = option.iterator();
+        while (values.hasNext()) {
+            length += values.next()
+                            .length();
+        }
+        return length;
+    }
+}
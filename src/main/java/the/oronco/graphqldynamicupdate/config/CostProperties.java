@@ -0,0 +1,14 @@
+package the.oronco.graphqldynamicupdate.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param maximum         operations with a higher estimated cost are rejected before they are executed
+ * @param defaultListSize expected size of lists whose size cannot be derived from the store or the arguments
+ *
+ * @author the_oronco@posteo.net
+ * @since 17/10/2026
+ */
+@ConfigurationProperties("graphql.cost")
+public record CostProperties(@DefaultValue("100000") long maximum, @DefaultValue("10") int defaultListSize) {}
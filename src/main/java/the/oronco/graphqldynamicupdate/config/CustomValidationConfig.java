@@ -1,8 +1,10 @@
 package the.oronco.graphqldynamicupdate.config;
 
 import com.netflix.graphql.dgs.autoconfig.ValidationRulesBuilderCustomizer;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import the.oronco.graphqldynamicupdate.dfs.ExistsBatchingInstrumentation;
 import the.oronco.graphqldynamicupdate.dfs.ExistsConstraint;
 import the.oronco.graphqldynamicupdate.dfs.Store;
 
@@ -14,7 +16,19 @@ import the.oronco.graphqldynamicupdate.dfs.Store;
 public class CustomValidationConfig {
 
     @Bean
-    public ValidationRulesBuilderCustomizer validationRulesBuilderCustomizer(Store store) {
-        return builder -> builder.addRule(new ExistsConstraint(store));
+    public ExistsConstraint existsConstraint(Store store, MeterRegistry registry) {
+        return new ExistsConstraint(store, registry);
+    }
+
+    @Bean
+    public ValidationRulesBuilderCustomizer validationRulesBuilderCustomizer(ExistsConstraint existsConstraint) {
+        return builder -> builder.addRule(existsConstraint);
+    }
+
+    @Bean
+    public ExistsBatchingInstrumentation existsBatchingInstrumentation(ExistsConstraint existsConstraint,
+                                                                       Store store,
+                                                                       MeterRegistry registry) {
+        return new ExistsBatchingInstrumentation(existsConstraint, store, registry);
     }
 }
@@ -0,0 +1,44 @@
+package the.oronco.graphqldynamicupdate.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import the.oronco.graphqldynamicupdate.dfs.CostLimitInstrumentation;
+import the.oronco.graphqldynamicupdate.dfs.Store;
+import the.oronco.graphqldynamicupdate.dfs.VirtualThreadInstrumentation;
+
+/**
+ * Switches the execution of data fetchers to virtual threads together with the rest of the request pipeline. Spring
+ * Boot already moves the servlet container onto virtual threads when {@code spring.threads.virtual.enabled} is set,
+ * this adds the data fetchers under the same switch.
+ * <p>
+ * Operations that are too expensive are rejected by the {@link CostLimitInstrumentation} before any other
+ * instrumentation touches the store.
+ *
+ * @author the_oronco@posteo.net
+ * @since 17/10/2026
+ */
+@Configuration
+@EnableConfigurationProperties(CostProperties.class)
+public class ExecutionConfig {
+
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public CostLimitInstrumentation costLimitInstrumentation(Store store,
+                                                             CostProperties properties,
+                                                             MeterRegistry registry) {
+        return new CostLimitInstrumentation(store, properties.maximum(), properties.defaultListSize(), registry);
+    }
+
+    @Bean
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public VirtualThreadInstrumentation virtualThreadInstrumentation() {
+        return new VirtualThreadInstrumentation(new VirtualThreadTaskExecutor("data-fetcher-"));
+    }
+}
@@ -0,0 +1,32 @@
+package the.oronco.graphqldynamicupdate.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import the.oronco.graphqldynamicupdate.dfs.FlightRecorderInstrumentation;
+import the.oronco.graphqldynamicupdate.dfs.MetricsInstrumentation;
+import the.oronco.graphqldynamicupdate.dfs.MicrometerStoreMetrics;
+import the.oronco.graphqldynamicupdate.dfs.StoreMetrics;
+
+/**
+ * @author the_oronco@posteo.net
+ * @since 17/10/2026
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public StoreMetrics storeMetrics(MeterRegistry registry) {
+        return new MicrometerStoreMetrics(registry);
+    }
+
+    @Bean
+    public MetricsInstrumentation metricsInstrumentation(MeterRegistry registry) {
+        return new MetricsInstrumentation(registry);
+    }
+
+    @Bean
+    public FlightRecorderInstrumentation flightRecorderInstrumentation() {
+        return new FlightRecorderInstrumentation();
+    }
+}
@@ -0,0 +1,51 @@
+package the.oronco.graphqldynamicupdate.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import the.oronco.graphqldynamicupdate.dfs.SnapshotInstrumentation;
+import the.oronco.graphqldynamicupdate.dfs.Store;
+import the.oronco.graphqldynamicupdate.dfs.StoreLayout;
+import the.oronco.graphqldynamicupdate.dfs.persistence.InMemoryJournal;
+import the.oronco.graphqldynamicupdate.dfs.persistence.MappedLogJournal;
+import the.oronco.graphqldynamicupdate.dfs.persistence.StoreJournal;
+
+/**
+ * @author the_oronco@posteo.net
+ * @since 17/10/2026
+ */
+@Configuration
+@EnableConfigurationProperties(StoreProperties.class)
+public class StoreConfig {
+
+    @Bean
+    public StoreJournal storeJournal(StoreProperties properties) {
+        var persistence = properties.persistence();
+        if (!persistence.enabled()) {
+            return new InMemoryJournal();
+        }
+        return new MappedLogJournal(persistence.directory(),
+                                    persistence.durability(),
+                                    persistence.segmentSize()
+                                               .toBytes(),
+                                    persistence.snapshotEvery(),
+                                    persistence.flushInterval());
+    }
+
+    @Bean
+    public StoreLayout storeLayout(StoreProperties properties) {
+        return properties.layout();
+    }
+
+    /**
+     * Runs right after the cost limit, so that the snapshot is in the context before the
+     * {@link the.oronco.graphqldynamicupdate.dfs.ExistsBatchingInstrumentation} checks the ids in it.
+     */
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE + 1)
+    public SnapshotInstrumentation snapshotInstrumentation(Store store) {
+        return new SnapshotInstrumentation(store);
+    }
+}
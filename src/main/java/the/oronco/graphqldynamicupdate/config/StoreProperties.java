@@ -0,0 +1,34 @@
+package the.oronco.graphqldynamicupdate.config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+import the.oronco.graphqldynamicupdate.dfs.StoreLayout;
+import the.oronco.graphqldynamicupdate.dfs.persistence.Durability;
+
+/**
+ * @param layout how domain objects are kept on the heap
+ *
+ * @author the_oronco@posteo.net
+ * @since 17/10/2026
+ */
+@ConfigurationProperties("store")
+public record StoreProperties(@DefaultValue("objects") StoreLayout layout, @DefaultValue Persistence persistence) {
+
+    /**
+     * @param enabled       if the store is persisted at all, otherwise it only lives on the heap
+     * @param directory     directory that holds the journal and its snapshots
+     * @param durability    when appended mutations are forced to disk
+     * @param flushInterval how often the journal is forced for {@link Durability#GROUP} and {@link Durability#ASYNC}
+     * @param segmentSize   size of a single memory mapped region of the journal
+     * @param snapshotEvery number of appended mutations after which a new snapshot is written
+     */
+    public record Persistence(@DefaultValue("false") boolean enabled,
+                              @DefaultValue("data") Path directory,
+                              @DefaultValue("group") Durability durability,
+                              @DefaultValue("5ms") Duration flushInterval,
+                              @DefaultValue("64MB") DataSize segmentSize,
+                              @DefaultValue("100000") long snapshotEvery) {}
+}
@@ -0,0 +1,114 @@
+package the.oronco.graphqldynamicupdate.dfs;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import the.oronco.graphqldynamicupdate.codegen.types.Failure;
+import the.oronco.graphqldynamicupdate.codegen.types.Material;
+import the.oronco.graphqldynamicupdate.codegen.types.Product;
+import the.oronco.graphqldynamicupdate.dfs.adt.Option;
+import the.oronco.graphqldynamicupdate.dfs.adt.Result;
+
+/**
+ * Asynchronous variant of the {@link Store} for data fetchers. Every method runs the store method of the same name on
+ * its own virtual thread and completes the returned future with its result, so that graphql-java fetches sibling
+ * fields of a query such as {@code products} and {@code materials} concurrently and a slow store never blocks the
+ * servlet thread that executes the request. There is no pool to size or to queue behind, a call that waits on a stripe
+ * or the journal only parks its own virtual thread.
+ * <p>
+ * Calls that are already made on a virtual thread, e.g. from a data fetcher that the
+ * {@link VirtualThreadInstrumentation} moved there, run inline, that thread may block and a second one would only add
+ * a handoff.
+ *
+ * @author the_oronco@posteo.net
+ * @since 17/10/2026
+ */
+@Component
+@RequiredArgsConstructor
+public class AsyncStore implements AutoCloseable {
+    private final Store store;
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual()
+                                                                                      .name("store-", 0)
+                                                                                      .factory());
+
+    public CompletableFuture<Collection<Product>> findAllProducts(Snapshot snapshot, Projection projection) {
+        return async(() -> store.findAllProducts(snapshot, projection));
+    }
+
+    public CompletableFuture<Option<Product>> findProductById(UUID id) {
+        return async(() -> store.findProductById(id));
+    }
+
+    public CompletableFuture<Page<Product>> findProductsPage(Snapshot snapshot,
+                                                             Option<UUID> afterId,
+                                                             int first,
+                                                             Projection projection) {
+        return async(() -> store.findProductsPage(snapshot, afterId, first, projection));
+    }
+
+    public CompletableFuture<Page<Product>> findProductsByNamePage(Snapshot snapshot,
+                                                                   String prefix,
+                                                                   Option<NameKey> after,
+                                                                   int first,
+                                                                   Projection projection) {
+        return async(() -> store.findProductsByNamePage(snapshot, prefix, after, first, projection));
+    }
+
+    public CompletableFuture<Result<Product, Failure>> updateProduct(VersionedUpdate<Product> update) {
+        return async(() -> store.updateProduct(update));
+    }
+
+    public CompletableFuture<Result<List<Product>, Failure>> deleteProducts(List<UUID> ids) {
+        return async(() -> store.deleteProducts(ids));
+    }
+
+    public CompletableFuture<Collection<Material>> findAllMaterial(Snapshot snapshot, Projection projection) {
+        return async(() -> store.findAllMaterial(snapshot, projection));
+    }
+
+    public CompletableFuture<Option<Material>> findMaterialById(UUID id) {
+        return async(() -> store.findMaterialById(id));
+    }
+
+    public CompletableFuture<Map<UUID, Material>> findMaterialsByIds(Snapshot snapshot, Collection<UUID> ids) {
+        return async(() -> store.findMaterialsByIds(snapshot, ids));
+    }
+
+    public CompletableFuture<Page<Material>> findMaterialsPage(Snapshot snapshot,
+                                                               Option<UUID> afterId,
+                                                               int first,
+                                                               Projection projection) {
+        return async(() -> store.findMaterialsPage(snapshot, afterId, first, projection));
+    }
+
+    public CompletableFuture<Result<Material, Failure>> updateMaterial(VersionedUpdate<Material> update) {
+        return async(() -> store.updateMaterial(update));
+    }
+
+    /**
+     * Waits for the calls that are still running, so that no write is cut off while the store shuts down.
+     */
+    @Override
+    public void close() {
+        executor.close();
+    }
+
+    private <T> CompletableFuture<T> async(Supplier<T> call) {
+        if (!Thread.currentThread()
+                   .isVirtual()) {
+            return CompletableFuture.supplyAsync(call, executor);
+        }
+        try {
+            return CompletableFuture.completedFuture(call.get());
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package the.oronco.graphqldynamicupdate.dfs;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import the.oronco.graphqldynamicupdate.codegen.types.Material;
+import the.oronco.graphqldynamicupdate.codegen.types.Product;
+
+/**
+ * The rows of {@link StoreLayout#COMPACT}. A domain object is a graph of about ten objects: the object itself, its id
+ * as a string, two {@link OffsetDateTime}s of four objects each, a boxed version and, for products, a material
+ * reference with its own id string. A row flattens all of that into a single object of primitives, only the name and
+ * the description stay strings:
+ * <ul>
+ *     <li>ids, also the id of the material of a product, as the two halves of their UUID,</li>
+ *     <li>timestamps as their epoch second and a second long that packs the nanosecond and the zone offset, so that
+ *     they are read back exactly as they were written,</li>
+ *     <li>the version as a primitive.</li>
+ * </ul>
+ * Reads build a new domain object from the row, so callers may change what they read without affecting the store. A
+ * read with a {@link Projection} only builds the projected fields, the timestamps and the material reference are the
+ * most expensive parts.
+ *
+ * @author the_oronco@posteo.net
+ * @since 17/10/2026
+ */
+final class CompactRows {
+    /**
+     * Epoch second of a missing timestamp, which is outside the range of {@link Instant}.
+     */
+    private static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
+    static final RowCodec<Product, ProductRow> PRODUCTS = new RowCodec<>() {
+        @Override
+        public ProductRow encode(Product product) {
+            UUID id = UUID.fromString(product.getId());
+            UUID materialId = UUID.fromString(product.getMaterial()
+                                                     .getId());
+            return new ProductRow(id.getMostSignificantBits(),
+                                  id.getLeastSignificantBits(),
+                                  product.getVersion(),
+                                  product.getName(),
+                                  product.getDescription(),
+                                  epochSecond(product.getCreatedOn()),
+                                  nanoAndOffset(product.getCreatedOn()),
+                                  epochSecond(product.getUpdatedOn()),
+                                  nanoAndOffset(product.getUpdatedOn()),
+                                  materialId.getMostSignificantBits(),
+                                  materialId.getLeastSignificantBits());
+        }
+
+        @Override
+        public Product decode(ProductRow row) {
+            return decode(row, Projection.ALL);
+        }
+
+        @Override
+        public Product decode(ProductRow row, Projection projection) {
+            var product = Product.newBuilder()
+                                 .id(new UUID(row.idMsb(), row.idLsb()).toString())
+                                 .build();
+            if (projection.version()) {
+                product.setVersion(row.version());
+            }
+            if (projection.name()) {
+                product.setName(row.name());
+            }
+            if (projection.description()) {
+                product.setDescription(row.description());
+            }
+            if (projection.createdOn()) {
+                product.setCreatedOn(timestamp(row.createdOnSecond(), row.createdOnNanoAndOffset()));
+            }
+            if (projection.updatedOn()) {
+                product.setUpdatedOn(timestamp(row.updatedOnSecond(), row.updatedOnNanoAndOffset()));
+            }
+            if (projection.material()) {
+                product.setMaterial(Store.materialReference(new UUID(row.materialMsb(), row.materialLsb())));
+            }
+            return product;
+        }
+    };
+
+    static final RowCodec<Material, MaterialRow> MATERIALS = new RowCodec<>() {
+        @Override
+        public MaterialRow encode(Material material) {
+            UUID id = UUID.fromString(material.getId());
+            return new MaterialRow(id.getMostSignificantBits(),
+                                   id.getLeastSignificantBits(),
+                                   material.getVersion(),
+                                   material.getName(),
+                                   material.getDescription(),
+                                   epochSecond(material.getCreatedOn()),
+                                   nanoAndOffset(material.getCreatedOn()),
+                                   epochSecond(material.getUpdatedOn()),
+                                   nanoAndOffset(material.getUpdatedOn()));
+        }
+
+        @Override
+        public Material decode(MaterialRow row) {
+            return decode(row, Projection.ALL);
+        }
+
+        @Override
+        public Material decode(MaterialRow row, Projection projection) {
+            var material = Material.newBuilder()
+                                   .id(new UUID(row.idMsb(), row.idLsb()).toString())
+                                   .build();
+            if (projection.version()) {
+                material.setVersion(row.version());
+            }
+            if (projection.name()) {
+                material.setName(row.name());
+            }
+            if (projection.description()) {
+                material.setDescription(row.description());
+            }
+            if (projection.createdOn()) {
+                material.setCreatedOn(timestamp(row.createdOnSecond(), row.createdOnNanoAndOffset()));
+            }
+            if (projection.updatedOn()) {
+                material.setUpdatedOn(timestamp(row.updatedOnSecond(), row.updatedOnNanoAndOffset()));
+            }
+            return material;
+        }
+    };
+
+    private CompactRows() {
+    }
+
+    record ProductRow(long idMsb,
+                      long idLsb,
+                      long version,
+                      String name,
+                      String description,
+                      long createdOnSecond,
+                      long createdOnNanoAndOffset,
+                      long updatedOnSecond,
+                      long updatedOnNanoAndOffset,
+                      long materialMsb,
+                      long materialLsb) {}
+
+    record MaterialRow(long idMsb,
+                       long idLsb,
+                       long version,
+                       String name,
+                       String description,
+                       long createdOnSecond,
+                       long createdOnNanoAndOffset,
+                       long updatedOnSecond,
+                       long updatedOnNanoAndOffset) {}
+
+    private static long epochSecond(OffsetDateTime timestamp) {
+        return timestamp == null ? NO_TIMESTAMP : timestamp.toEpochSecond();
+    }
+
+    /**
+     * @return the offset in seconds in the upper half and the nanosecond in the lower half
+     */
+    private static long nanoAndOffset(OffsetDateTime timestamp) {
+        if (timestamp == null) {
+            return 0;
+        }
+        return (long) timestamp.getOffset()
+                               .getTotalSeconds() << 32 | timestamp.getNano();
+    }
+
+    private static OffsetDateTime timestamp(long epochSecond, long nanoAndOffset) {
+        if (epochSecond == NO_TIMESTAMP) {
+            return null;
+        }
+        var instant = Instant.ofEpochSecond(epochSecond, (int) nanoAndOffset);
+        return OffsetDateTime.ofInstant(instant, ZoneOffset.ofTotalSeconds((int) (nanoAndOffset >> 32)));
+    }
+}
@@ -0,0 +1,120 @@
+package the.oronco.graphqldynamicupdate.dfs;
+
+import graphql.ExecutionResult;
+import graphql.execution.AbortExecutionException;
+import graphql.execution.ExecutionContext;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimpleInstrumentationContext;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import graphql.normalized.ExecutableNormalizedField;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.GraphQLTypeUtil;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import the.oronco.graphqldynamicupdate.codegen.types.Material;
+import the.oronco.graphqldynamicupdate.codegen.types.Product;
+import the.oronco.graphqldynamicupdate.dfs.adt.OptionInt;
+
+/**
+ * Estimates the cost of every operation before it is executed and aborts operations whose cost exceeds the maximum,
+ * so that a single request cannot walk and serialize the whole store.
+ * <p>
+ * The cost is the number of values an operation resolves. Every field costs one per instance of its parent, a list
+ * field multiplies the instances of its children by its expected size, which is
+ * <ul>
+ *     <li>the {@code first} argument of the parent for the edges of a connection, or the default page size of
+ *     {@link Cursors} if it is {@code null},</li>
+ *     <li>the current number of stored domain objects for lists of products or materials,</li>
+ *     <li>the size of the largest list argument, for mutations that return one result per input,</li>
+ *     <li>{@code defaultListSize} for any other list.</li>
+ * </ul>
+ * Every estimate is published as the distribution summary {@code graphql.operation.cost}, tagged by the type of the
+ * operation, to size the maximum from real traffic.
+ *
+ * @author the_oronco@posteo.net
+ * @since 17/10/2026
+ */
+@RequiredArgsConstructor
+public class CostLimitInstrumentation extends SimplePerformantInstrumentation {
+    private static final Map<String, Class<?>> DOMAIN_CLASSES = Map.of(Product.class.getSimpleName(),
+                                                                       Product.class,
+                                                                       Material.class.getSimpleName(),
+                                                                       Material.class);
+
+    private final Store store;
+    private final long maximumCost;
+    private final int defaultListSize;
+    private final MeterRegistry registry;
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecuteOperation(InstrumentationExecuteOperationParameters parameters,
+                                                                         InstrumentationState state) {
+        ExecutionContext executionContext = parameters.getExecutionContext();
+        var fields = executionContext.getNormalizedQueryTree()
+                                     .get()
+                                     .getTopLevelFields();
+        double cost = cost(fields, executionContext.getGraphQLSchema(), 1, OptionInt.none());
+
+        String operation = executionContext.getOperationDefinition()
+                                           .getOperation()
+                                           .name()
+                                           .toLowerCase(Locale.ROOT);
+        DistributionSummary.builder("graphql.operation.cost")
+                           .tag("operation", operation)
+                           .register(registry)
+                           .record(cost);
+        if (cost > maximumCost) {
+            throw new AbortExecutionException("The estimated cost %.0f of the operation exceeds the maximum of %d!"
+                                                      .formatted(cost, maximumCost));
+        }
+        return SimpleInstrumentationContext.noOp();
+    }
+
+    /**
+     * @param instances number of times the fields are resolved, once per value of their parent
+     * @param pageSize  the {@code first} argument of the parent, if it has one
+     */
+    private double cost(List<ExecutableNormalizedField> fields,
+                        GraphQLSchema schema,
+                        double instances,
+                        OptionInt pageSize) {
+        double cost = 0;
+        for (ExecutableNormalizedField field : fields) {
+            double values = GraphQLTypeUtil.isList(GraphQLTypeUtil.unwrapNonNull(field.getType(schema)))
+                            ? instances * listSize(field, schema, pageSize)
+                            : instances;
+            // an explicit first: null is served with the default page size, just like by the data fetchers
+            Map<String, Object> arguments = field.getResolvedArguments();
+            OptionInt childPageSize = arguments.containsKey("first")
+                                      ? OptionInt.some(Cursors.pageSize((Integer) arguments.get("first")))
+                                      : OptionInt.none();
+            cost += values + cost(field.getChildren(), schema, values, childPageSize);
+        }
+        return cost;
+    }
+
+    private int listSize(ExecutableNormalizedField field, GraphQLSchema schema, OptionInt pageSize) {
+        if (pageSize instanceof OptionInt.Some page) {
+            return page.value();
+        }
+        String elementType = GraphQLTypeUtil.unwrapAll(field.getType(schema))
+                                            .getName();
+        if (DOMAIN_CLASSES.get(elementType) instanceof Class<?> domainClass) {
+            return store.estimatedCountByClass(domainClass);
+        }
+        return field.getResolvedArguments()
+                    .values()
+                    .stream()
+                    .filter(Collection.class::isInstance)
+                    .mapToInt(argument -> ((Collection<?>) argument).size())
+                    .max()
+                    .orElse(defaultListSize);
+    }
+}
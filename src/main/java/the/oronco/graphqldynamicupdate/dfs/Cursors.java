@@ -0,0 +1,127 @@
+package the.oronco.graphqldynamicupdate.dfs;
+
+import graphql.schema.DataFetchingFieldSelectionSet;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
+import the.oronco.graphqldynamicupdate.codegen.types.PageInfo;
+import the.oronco.graphqldynamicupdate.dfs.adt.Option;
+
+/**
+ * Opaque cursors of the connection queries. A cursor encodes the kind of domain object it points into and the id of
+ * the domain object, so a cursor of one connection cannot accidentally be used for another.
+ *
+ * @author the_oronco@posteo.net
+ * @since 17/10/2026
+ */
+final class Cursors {
+    /**
+     * Default of the {@code first} argument in the schema.
+     */
+    static final int DEFAULT_PAGE_SIZE = 50;
+    /**
+     * Path of the domain objects in the selection of a connection.
+     */
+    static final String NODE_PATH = "edges/node/";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder()
+                                                        .withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private Cursors() {
+    }
+
+    /**
+     * The schema default of {@code first} only applies if the argument is missing, a client can still pass
+     * {@code first: null} explicitly.
+     *
+     * @return the number of domain objects to return for the {@code first} argument of a connection query
+     */
+    static int pageSize(Integer first) {
+        return Objects.requireNonNullElse(first, DEFAULT_PAGE_SIZE);
+    }
+
+    static String encode(String kind, String id) {
+        return ENCODER.encodeToString((kind + ':' + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param kind   the kind of domain object the cursor has to point into
+     * @param cursor the cursor given by the client, may be {@code null}
+     *
+     * @return the id the cursor points to or {@code None} if no cursor was given
+     *
+     * @throws IllegalArgumentException if the cursor was not created for the given kind
+     */
+    static Option<UUID> decode(String kind, String cursor) {
+        return payload(kind, cursor).map(id -> parseId(cursor, id));
+    }
+
+    /**
+     * A cursor into a list ordered by name, which has to carry the name next to the id to find its position again even
+     * if the domain object was renamed or deleted in the meantime.
+     */
+    static String encodeNamed(String kind, String name, String id) {
+        return encode(kind, id + ':' + name);
+    }
+
+    /**
+     * @return the position the cursor points to or {@code None} if no cursor was given
+     *
+     * @throws IllegalArgumentException if the cursor was not created by {@link #encodeNamed(String, String, String)}
+     *                                  for the given kind
+     */
+    static Option<NameKey> decodeNamed(String kind, String cursor) {
+        return payload(kind, cursor).map(position -> {
+            int separator = position.indexOf(':');
+            if (separator < 0) {
+                throw new IllegalArgumentException("The cursor %s does not point to a name!".formatted(cursor));
+            }
+            return new NameKey(position.substring(separator + 1), parseId(cursor, position.substring(0, separator)));
+        });
+    }
+
+    private static Option<String> payload(String kind, String cursor) {
+        if (cursor == null) {
+            return Option.none();
+        }
+        String decoded;
+        try {
+            decoded = new String(DECODER.decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("The cursor %s is not valid!".formatted(cursor), e);
+        }
+        if (!decoded.startsWith(kind + ':')) {
+            throw new IllegalArgumentException("The cursor %s does not point into a list of %s!".formatted(cursor, kind));
+        }
+        return Option.some(decoded.substring(kind.length() + 1));
+    }
+
+    private static UUID parseId(String cursor, String id) {
+        return Ids.parse(id)
+                  .expectElse(() -> new IllegalArgumentException("The cursor %s does not point to an id!".formatted(
+                          cursor)));
+    }
+
+    /**
+     * @return if the client selected the cursors of the edges; otherwise only the cursors of the page info are encoded
+     */
+    static boolean edgeCursorsSelected(DataFetchingFieldSelectionSet selectionSet) {
+        return selectionSet.contains("edges/cursor");
+    }
+
+    /**
+     * @param cursor encodes the cursor of a domain object, only called for the first and the last one of the page
+     */
+    static <T> PageInfo pageInfo(Page<T> page, Function<T, String> cursor, boolean hasPreviousPage) {
+        List<T> items = page.items();
+        return PageInfo.newBuilder()
+                       .hasNextPage(page.hasNextPage())
+                       .hasPreviousPage(hasPreviousPage)
+                       .startCursor(items.isEmpty() ? null : cursor.apply(items.getFirst()))
+                       .endCursor(items.isEmpty() ? null : cursor.apply(items.getLast()))
+                       .build();
+    }
+}
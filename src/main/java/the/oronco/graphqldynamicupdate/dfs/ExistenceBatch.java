@@ -0,0 +1,52 @@
+package the.oronco.graphqldynamicupdate.dfs;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import the.oronco.graphqldynamicupdate.dfs.adt.Option;
+
+/**
+ * The result of checking all ids referenced by {@code @Exists} in one operation with one store call per domain class.
+ * It is put into the {@link graphql.GraphQLContext} of the operation by the {@link ExistsBatchingInstrumentation} and
+ * answers the checks of the single {@code @Exists} usages.
+ * <p>
+ * The ids are checked in the {@link Snapshot} of the operation, so a query validates against the same point in time it
+ * reads. Mutations are validated against the state at their start; their writes check the ids again while holding the
+ * locks of the ids, so an id deleted in between is reported by the write instead.
+ *
+ * @param checked all ids that were checked by their domain class
+ * @param missing the checked ids that did not reference a domain object by their domain class
+ *
+ * @author the_oronco@posteo.net
+ * @since 17/10/2026
+ */
+record ExistenceBatch(Map<Class<?>, Set<UUID>> checked, Map<Class<?>, Set<UUID>> missing) {
+
+    /**
+     * @param ids         the ids to check
+     * @param domainClass the domain class the ids have to reference
+     *
+     * @return the ids that are missing or {@code None} if the batch cannot answer for all ids and the store has to be
+     * asked instead
+     */
+    Option<List<UUID>> missingOf(Collection<UUID> ids, Class<?> domainClass) {
+        var checkedIds = checked.get(domainClass);
+        if (checkedIds == null || !checkedIds.containsAll(ids)) {
+            return Option.none();
+        }
+        var missingIds = missing.getOrDefault(domainClass, Set.of());
+        if (missingIds.isEmpty()) {
+            return Option.some(List.of());
+        }
+        var missingOfIds = new ArrayList<UUID>();
+        for (UUID id : ids) {
+            if (missingIds.contains(id)) {
+                missingOfIds.add(id);
+            }
+        }
+        return Option.some(missingOfIds);
+    }
+}
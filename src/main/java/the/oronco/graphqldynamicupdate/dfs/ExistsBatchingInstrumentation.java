@@ -0,0 +1,186 @@
+package the.oronco.graphqldynamicupdate.dfs;
+
+import graphql.ExecutionResult;
+import graphql.execution.ExecutionContext;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimpleInstrumentationContext;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import graphql.normalized.ExecutableNormalizedField;
+import graphql.schema.FieldCoordinates;
+import graphql.schema.GraphQLAppliedDirective;
+import graphql.schema.GraphQLArgument;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLInputObjectField;
+import graphql.schema.GraphQLInputObjectType;
+import graphql.schema.GraphQLInputType;
+import graphql.schema.GraphQLList;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.GraphQLTypeUtil;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import the.oronco.graphqldynamicupdate.dfs.ExistsConstraint.ExistsSite;
+
+/**
+ * Collects the ids of every {@code @Exists} usage of an operation before it is executed, deduplicates them by domain
+ * class and checks each domain class with a single store call. The outcome is put into the
+ * {@link graphql.GraphQLContext} as an {@link ExistenceBatch}, where the {@link ExistsConstraint} picks it up while
+ * validating the single usages, so errors are still reported at the path of each usage. The ids are checked in the
+ * {@link Snapshot} of the operation, which the {@link SnapshotInstrumentation} has to put into the context first.
+ * <p>
+ * The check of every domain class is published as the timer {@code graphql.validation.exists.batch} and its number of
+ * ids as the distribution summary {@code graphql.validation.exists.batch.ids}, both tagged by the domain class.
+ *
+ * @author the_oronco@posteo.net
+ * @since 17/10/2026
+ */
+@RequiredArgsConstructor
+public class ExistsBatchingInstrumentation extends SimplePerformantInstrumentation {
+    private final ExistsConstraint existsConstraint;
+    private final Store store;
+    private final MeterRegistry registry;
+    private final Map<Class<?>, BatchMeters> meters = new ConcurrentHashMap<>();
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecuteOperation(InstrumentationExecuteOperationParameters parameters,
+                                                                         InstrumentationState state) {
+        ExecutionContext executionContext = parameters.getExecutionContext();
+        GraphQLSchema schema = executionContext.getGraphQLSchema();
+
+        Map<Class<?>, Set<UUID>> idsByDomainClass = new HashMap<>();
+        var fields = executionContext.getNormalizedQueryTree()
+                                     .get()
+                                     .getTopLevelFields();
+        collectFields(fields, schema, idsByDomainClass);
+
+        if (!idsByDomainClass.isEmpty()) {
+            var context = executionContext.getGraphQLContext();
+            Snapshot snapshot = context.getOrDefault(Snapshot.class, Snapshot.LATEST);
+            Map<Class<?>, Set<UUID>> missing = new HashMap<>();
+            idsByDomainClass.forEach((domainClass, ids) -> {
+                long start = System.nanoTime();
+                store.domainObjectsExistByIdsAndClass(snapshot, ids, domainClass)
+                     .inspectErr(missingIds -> missing.put(domainClass, Set.copyOf(missingIds)));
+                metersOf(domainClass).record(start, ids.size());
+            });
+            context.put(ExistenceBatch.class, new ExistenceBatch(idsByDomainClass, missing));
+        }
+        return SimpleInstrumentationContext.noOp();
+    }
+
+    /**
+     * The meters of the batches of one domain class.
+     */
+    private record BatchMeters(Timer duration, DistributionSummary ids) {
+        void record(long startNanos, int idCount) {
+            duration.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            ids.record(idCount);
+        }
+    }
+
+    private BatchMeters metersOf(Class<?> domainClass) {
+        return meters.computeIfAbsent(domainClass, c -> {
+            String tag = c.getSimpleName();
+            return new BatchMeters(Timer.builder("graphql.validation.exists.batch")
+                                        .tag("domainClass", tag)
+                                        .register(registry),
+                                   DistributionSummary.builder("graphql.validation.exists.batch.ids")
+                                                      .tag("domainClass", tag)
+                                                      .register(registry));
+        });
+    }
+
+    private void collectFields(List<ExecutableNormalizedField> fields,
+                               GraphQLSchema schema,
+                               Map<Class<?>, Set<UUID>> idsByDomainClass) {
+        for (ExecutableNormalizedField field : fields) {
+            Map<String, Object> arguments = field.getResolvedArguments();
+            if (!arguments.isEmpty()) {
+                for (String objectTypeName : field.getObjectTypeNames()) {
+                    var coordinates = FieldCoordinates.coordinates(objectTypeName, field.getName());
+                    GraphQLFieldDefinition fieldDefinition = schema.getFieldDefinition(coordinates);
+                    if (fieldDefinition == null) {
+                        continue;
+                    }
+                    var collector = new Collector(coordinates, fieldDefinition, idsByDomainClass);
+                    for (GraphQLArgument argument : fieldDefinition.getArguments()) {
+                        collector.collect(arguments.get(argument.getName()),
+                                          argument.getType(),
+                                          argument.getAppliedDirectives());
+                    }
+                }
+            }
+            collectFields(field.getChildren(), schema, idsByDomainClass);
+        }
+    }
+
+    @RequiredArgsConstructor
+    private final class Collector {
+        private final FieldCoordinates coordinates;
+        private final GraphQLFieldDefinition fieldDefinition;
+        private final Map<Class<?>, Set<UUID>> idsByDomainClass;
+
+        void collect(Object value, GraphQLInputType type, List<GraphQLAppliedDirective> directives) {
+            if (value == null) {
+                return;
+            }
+            for (GraphQLAppliedDirective directive : directives) {
+                if (directive.getName()
+                             .equals(existsConstraint.getName())) {
+                    ExistsSite site = existsConstraint.siteOf(coordinates, fieldDefinition, directive);
+                    addIds(value, idsByDomainClass.computeIfAbsent(site.domainClass(), domainClass -> new HashSet<>()));
+                }
+            }
+            collectNested(value, type);
+        }
+
+        private void collectNested(Object value, GraphQLInputType type) {
+            var unwrapped = GraphQLTypeUtil.unwrapNonNull(type);
+            if (unwrapped instanceof GraphQLList list && value instanceof Collection<?> elements) {
+                for (Object element : elements) {
+                    if (element != null) {
+                        collectNested(element, (GraphQLInputType) list.getWrappedType());
+                    }
+                }
+            } else if (unwrapped instanceof GraphQLInputObjectType inputObjectType && value instanceof Map<?, ?> inputFields) {
+                for (GraphQLInputObjectField inputField : inputObjectType.getFieldDefinitions()) {
+                    collect(inputFields.get(inputField.getName()), inputField.getType(), inputField.getAppliedDirectives());
+                }
+            }
+        }
+
+        private static void addIds(Object value, Set<UUID> ids) {
+            switch (value) {
+                case String id -> addId(id, ids);
+                case Collection<?> elements -> {
+                    for (Object element : elements) {
+                        if (element instanceof String id) {
+                            addId(id, ids);
+                        }
+                    }
+                }
+                default -> {
+                    // not an id, the constraint itself reports it
+                }
+            }
+        }
+
+        private static void addId(String id, Set<UUID> ids) {
+            // ids that are no UUIDs are left to the constraint, which reports them as missing without the store
+            Ids.parse(id)
+               .inspect(ids::add);
+        }
+    }
+}
@@ -3,22 +3,44 @@ package the.oronco.graphqldynamicupdate.dfs;
 import graphql.GraphQLError;
 import graphql.GraphQLException;
 import graphql.Scalars;
+import graphql.schema.FieldCoordinates;
 import graphql.schema.GraphQLAppliedDirective;
+import graphql.schema.GraphQLArgument;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLFieldsContainer;
+import graphql.schema.GraphQLInputObjectField;
+import graphql.schema.GraphQLInputObjectType;
 import graphql.schema.GraphQLInputType;
-import graphql.schema.GraphQLNamedType;
 import graphql.schema.GraphQLScalarType;
+import graphql.schema.GraphQLTypeUtil;
 import graphql.validation.constraints.Documentation;
 import graphql.validation.rules.ValidationEnvironment;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
-import org.jetbrains.annotations.NotNull;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import the.oronco.graphqldynamicupdate.dfs.ExistsConstraint.ExistError.MissingIDs;
 import the.oronco.graphqldynamicupdate.dfs.ExistsConstraint.ExistError.UnknownInput;
+import the.oronco.graphqldynamicupdate.dfs.adt.Option;
 import the.oronco.graphqldynamicupdate.dfs.adt.Result;
 import the.oronco.graphqldynamicupdate.dfs.adt.Result.GOOD;
+import the.oronco.graphqldynamicupdate.dfs.jfr.ExistsCheckEvent;
 
 /**
+ * Every check is published as the timer {@code graphql.validation.exists}, tagged by the domain class and whether it was
+ * answered by the {@link ExistenceBatch} of the operation, and its number of ids as the distribution summary
+ * {@code graphql.validation.exists.ids}, tagged by the domain class. It is also recorded as an {@link ExistsCheckEvent}
+ * for Java Flight Recorder.
+ *
  * @author the_oronco@posteo.net
  * @since 24/02/2024
  */
@@ -30,16 +52,21 @@ public class ExistsConstraint extends AbstractBatchableConstraint {
 
     private final Store store;
     private final String defaultClassSearchPath;
+    private final MeterRegistry registry;
+    private final Map<SiteKey, ExistsSite> sites = new ConcurrentHashMap<>();
+    private final Map<Class<?>, CheckMeters> meters = new ConcurrentHashMap<>();
+    private final Map<ArgumentKey, Boolean> applicability = new ConcurrentHashMap<>();
 
-    public ExistsConstraint(Store store, String defaultClassSearchPath) {
+    public ExistsConstraint(Store store, String defaultClassSearchPath, MeterRegistry registry) {
         super("Exists");
         this.store = store;
         this.defaultClassSearchPath = defaultClassSearchPath.endsWith(".") ? defaultClassSearchPath : defaultClassSearchPath
                                                                                                       + ".";
+        this.registry = registry;
     }
 
-    public ExistsConstraint(Store store) {
-        this(store, DEFAULT_CLASS_SEARCH_PATH);
+    public ExistsConstraint(Store store, MeterRegistry registry) {
+        this(store, DEFAULT_CLASS_SEARCH_PATH, registry);
     }
 
     @Override
@@ -67,32 +94,158 @@ public class ExistsConstraint extends AbstractBatchableConstraint {
         record UnknownInput(Object input) implements ExistError {}
     }
 
-    private List<GraphQLError> runConstraintImpl(ValidationEnvironment validationEnvironment) {
-        Object validatedValue = validationEnvironment.getValidatedValue();
-        GraphQLAppliedDirective directive = validationEnvironment.getContextObject(GraphQLAppliedDirective.class);
+    /**
+     * A usage of the directive, compiled once when the schema is wired.
+     *
+     * @param domainClass the class of the domain objects the ids have to reference
+     * @param name        the name of the domain objects used in error messages
+     */
+    record ExistsSite(Class<?> domainClass, String name) {}
+
+    /**
+     * The meters of the checks of one domain class.
+     */
+    private record CheckMeters(Timer batched, Timer unbatched, DistributionSummary ids) {
+        void record(long startNanos, int idCount, boolean fromBatch) {
+            (fromBatch ? batched : unbatched).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            ids.record(idCount);
+        }
+    }
+
+    private CheckMeters metersOf(Class<?> domainClass) {
+        return meters.computeIfAbsent(domainClass,
+                                      c -> new CheckMeters(checkTimer(c, true),
+                                                           checkTimer(c, false),
+                                                           DistributionSummary.builder("graphql.validation.exists.ids")
+                                                                              .tag("domainClass", c.getSimpleName())
+                                                                              .register(registry)));
+    }
+
+    private Timer checkTimer(Class<?> domainClass, boolean batched) {
+        return Timer.builder("graphql.validation.exists")
+                    .tag("domainClass", domainClass.getSimpleName())
+                    .tag("batched", String.valueOf(batched))
+                    .register(registry);
+    }
+
+    /**
+     * Identifies a usage of the directive. The field is part of the key because directives without a domain class and
+     * name fall back on the output type of the field they are used in.
+     */
+    private record SiteKey(FieldCoordinates field, GraphQLAppliedDirective directive) {}
+
+    /**
+     * Identifies an argument of a field. Schema elements are compared by identity, so a replaced schema gets new keys.
+     */
+    private record ArgumentKey(FieldCoordinates field, GraphQLArgument argument) {}
+
+    /**
+     * Whether the directive applies to an argument only depends on the schema, yet the extended validation asks again
+     * on every fetch of the field. The answer is therefore only computed once per argument.
+     */
+    @Override
+    public boolean appliesTo(GraphQLArgument argument,
+                             GraphQLFieldDefinition fieldDefinition,
+                             GraphQLFieldsContainer fieldsContainer) {
+        var field = FieldCoordinates.coordinates(fieldsContainer, fieldDefinition);
+        return applicability.computeIfAbsent(new ArgumentKey(field, argument), key -> {
+            boolean applies = super.appliesTo(argument, fieldDefinition, fieldsContainer);
+            if (applies) {
+                compileSites(field, fieldDefinition, argument.getAppliedDirectives(), argument.getType(), new HashSet<>());
+            }
+            return applies;
+        });
+    }
+
+    /**
+     * Compiles every usage of the directive on an argument or input field and on all input fields reachable from its
+     * type. Misconfigured usages fail here, that is while the schema is wired on startup.
+     */
+    private void compileSites(FieldCoordinates field,
+                              GraphQLFieldDefinition fieldDefinition,
+                              List<GraphQLAppliedDirective> directives,
+                              GraphQLInputType type,
+                              Set<String> visitedTypes) {
+        for (GraphQLAppliedDirective directive : directives) {
+            if (directive.getName()
+                         .equals(getName())) {
+                sites.computeIfAbsent(new SiteKey(field, directive), key -> compile(fieldDefinition, directive));
+            }
+        }
+        if (GraphQLTypeUtil.unwrapAll(type) instanceof GraphQLInputObjectType inputObjectType
+            && visitedTypes.add(inputObjectType.getName())) {
+            for (GraphQLInputObjectField inputField : inputObjectType.getFieldDefinitions()) {
+                compileSites(field, fieldDefinition, inputField.getAppliedDirectives(), inputField.getType(), visitedTypes);
+            }
+        }
+    }
+
+    private ExistsSite compile(GraphQLFieldDefinition fieldDefinition, GraphQLAppliedDirective directive) {
+        String className = argumentValue(directive, "domainClass");
+        String name = argumentValue(directive, "name");
+
+        if (className == null) {
+            // try to use the name instead and fall back on the name of the output type
+            String typeName = name != null ? name : GraphQLTypeUtil.unwrapAll(fieldDefinition.getType())
+                                                                   .getName();
+            className = defaultClassSearchPath + typeName;
+        }
 
-        String className = directive.getArgument("domainClass")
-                                    .getValue();
-        String name = directive.getArgument("name")
-                               .getValue();
         Class<?> domainClass;
+        try {
+            domainClass = Class.forName(className);
+        } catch (ClassNotFoundException e) {
+            throw new GraphQLException("The domain class %s that is targeted by @%s on the field %s cannot be found!".formatted(
+                    className,
+                    getName(),
+                    fieldDefinition.getName()), e);
+        }
+        return new ExistsSite(domainClass, name != null ? name : domainClass.getSimpleName());
+    }
+
+    private static String argumentValue(GraphQLAppliedDirective directive, String argumentName) {
+        var argument = directive.getArgument(argumentName);
+        return argument == null ? null : argument.getValue();
+    }
+
+    ExistsSite siteOf(FieldCoordinates field, GraphQLFieldDefinition fieldDefinition, GraphQLAppliedDirective directive) {
+        // only misses if the schema elements were replaced after wiring
+        return sites.computeIfAbsent(new SiteKey(field, directive), key -> compile(fieldDefinition, directive));
+    }
 
-        domainClass = getDomainClass(validationEnvironment, className, name);
+    private List<GraphQLError> runConstraintImpl(ValidationEnvironment validationEnvironment) {
+        long start = System.nanoTime();
+        var event = ExistsCheckEvent.started();
+        Object validatedValue = validationEnvironment.getValidatedValue();
+        GraphQLAppliedDirective directive = validationEnvironment.getContextObject(GraphQLAppliedDirective.class);
+        var field = FieldCoordinates.coordinates(validationEnvironment.getFieldsContainer(),
+                                                 validationEnvironment.getFieldDefinition());
+        ExistsSite site = siteOf(field, validationEnvironment.getFieldDefinition(), directive);
+        Class<?> domainClass = site.domainClass();
+        var context = validationEnvironment.getGraphQLContext();
+        Option<ExistenceBatch> batch = context == null ? Option.none() : Option.from(context.get(ExistenceBatch.class));
+        Snapshot snapshot = context == null ? Snapshot.LATEST : context.getOrDefault(Snapshot.class, Snapshot.LATEST);
 
         Result<GOOD, ExistError> validationResult = switch (validatedValue) {
-            case String stringId ->
-                    validateExistenceOfSingle(stringId, domainClass) ? Result.good() : Result.err(new MissingIDs(List.of(
-                            stringId)));
+            case String stringId -> validateExistenceOfSingle(stringId, domainClass, snapshot, batch) ? Result.good()
+                                                                                            : Result.err(new MissingIDs(List.of(
+                                                                                                    stringId)));
             case Collection<?> stringIds when stringIds.stream()
                                                        .allMatch(id -> id instanceof String) -> //noinspection unchecked
-                    validateExistenceOfBatch((Collection<String>) stringIds, domainClass).mapErr(err -> new MissingIDs(err));
+                    validateExistenceOfBatch((Collection<String>) stringIds, domainClass, snapshot, batch).mapErr(err -> new MissingIDs(err));
             default -> Result.err(new UnknownInput(validatedValue));
         };
+        int idCount = validatedValue instanceof Collection<?> ids ? ids.size() : 1;
+        metersOf(domainClass).record(start, idCount, batch.isSome());
+        int missingCount = validationResult instanceof Result.Err<GOOD, ExistError> err
+                           && err.error() instanceof MissingIDs(var missingIDs) ? missingIDs.size() : 0;
+        event.finish(field.getTypeName() + "." + field.getFieldName(),
+                     domainClass.getSimpleName(),
+                     idCount,
+                     missingCount,
+                     batch.isSome());
 
-
-        if (name == null) {
-            name = domainClass.getSimpleName();
-        }
+        String name = site.name();
 
         return switch (validationResult) {
             case Result.Err<GOOD, ExistError> err -> switch (err.error()) {
@@ -104,38 +257,55 @@ public class ExistsConstraint extends AbstractBatchableConstraint {
         };
     }
 
-    @NotNull
-    private Class<?> getDomainClass(ValidationEnvironment validationEnvironment, String className, String fallback) {
-        Class<?> domainClass;
-        // determine domain class
-        if (className == null) {
-            if (fallback != null) { // try to use name instead
-                className = defaultClassSearchPath + fallback;
-            } else { // try to fall back on the name of the output type
-                var outputType = validationEnvironment.getFieldDefinition()
-                                                      .getType();
-                if (outputType instanceof GraphQLNamedType namedType) {
-                    className = defaultClassSearchPath + namedType.getName();
-                }
-            }
-        }
-
-        try {
-            domainClass = Class.forName(className);
-        } catch (ClassNotFoundException e) {
-            // TODO check if this might not be caught at schema generation time
-            throw new GraphQLException("The domain class that is targeted for validating the given IDs cannot be found!");
-        }
-        return domainClass;
+    private boolean validateExistenceOfSingle(String id,
+                                              Class<?> domainClass,
+                                              Snapshot snapshot,
+                                              Option<ExistenceBatch> batch) {
+        return switch (Ids.parse(id)) {
+            case Option.Some<UUID> uuid -> switch (missingFromBatch(batch, List.of(uuid.value()), domainClass)) {
+                case Option.Some<List<UUID>> some -> some.value()
+                                                         .isEmpty();
+                case Option.None<List<UUID>> ignored -> store.domainObjectsExistsByIdAndClass(snapshot, uuid.value(), domainClass);
+            };
+            // an id that is no UUID cannot reference anything
+            case Option.None<UUID> ignored -> false;
+        };
     }
 
-
-    private boolean validateExistenceOfSingle(String id, Class<?> domainClass) {
-        return store.domainObjectsExistsByIdAndClass(id, domainClass);
+    private Result<GOOD, List<String>> validateExistenceOfBatch(Collection<String> ids,
+                                                                Class<?> domainClass,
+                                                                Snapshot snapshot,
+                                                                Option<ExistenceBatch> batch) {
+        var uuids = new ArrayList<UUID>(ids.size());
+        var missingIds = new ArrayList<String>();
+        for (String id : ids) {
+            switch (Ids.parse(id)) {
+                case Option.Some<UUID> uuid -> uuids.add(uuid.value());
+                case Option.None<UUID> ignored -> missingIds.add(id);
+            }
+        }
+        Result<GOOD, List<UUID>> existence = switch (missingFromBatch(batch, uuids, domainClass)) {
+            case Option.Some<List<UUID>> some when some.value()
+                                                       .isEmpty() -> Result.good();
+            case Option.Some<List<UUID>> some -> Result.err(some.value());
+            case Option.None<List<UUID>> ignored -> store.domainObjectsExistByIdsAndClass(snapshot, uuids, domainClass);
+        };
+        existence.inspectErr(missingUuids -> missingUuids.forEach(uuid -> missingIds.add(uuid.toString())));
+        return missingIds.isEmpty() ? Result.good() : Result.err(missingIds);
     }
 
-    private Result<GOOD, List<String>> validateExistenceOfBatch(Collection<String> ids, Class<?> domainClass) {
-        return store.domainObjectsExistByIdsAndClass(ids, domainClass);
+    /**
+     * Answers the check from the {@link ExistenceBatch} of the operation if it was prepared by the
+     * {@link ExistsBatchingInstrumentation} and contains all ids.
+     */
+    private Option<List<UUID>> missingFromBatch(Option<ExistenceBatch> batch,
+                                                Collection<UUID> ids,
+                                                  Class<?> domainClass) {
+        return switch (batch) {
+            case Option.Some<ExistenceBatch> some -> some.value()
+                                                         .missingOf(ids, domainClass);
+            case Option.None<ExistenceBatch> ignored -> Option.none();
+        };
     }
 
     @Override
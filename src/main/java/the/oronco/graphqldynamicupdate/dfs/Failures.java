@@ -0,0 +1,21 @@
+package the.oronco.graphqldynamicupdate.dfs;
+
+import the.oronco.graphqldynamicupdate.codegen.types.Failure;
+
+/**
+ * Turns {@link Failure}s of the {@link Store} into exceptions for mutations that cannot return a failure.
+ *
+ * @author the_oronco@posteo.net
+ * @since 17/10/2026
+ */
+final class Failures {
+    private Failures() {
+    }
+
+    static RuntimeException asException(Failure failure) {
+        return switch (failure.getKind()) {
+            case Missing -> new IllegalArgumentException(failure.getMessage());
+            case ReferencedByOther, VersionConflict -> new IllegalStateException(failure.getMessage());
+        };
+    }
+}
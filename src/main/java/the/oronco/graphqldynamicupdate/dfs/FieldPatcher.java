@@ -0,0 +1,134 @@
+package the.oronco.graphqldynamicupdate.dfs;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Applies partial updates given as a map from field name to new value directly onto an entity. For every distinct set
+ * of field names a plan is compiled once, which is the setter of each of those fields as a {@link MethodHandle}.
+ * Applying a patch then only invokes the setters of the fields present in the map; fields mapped to {@code null} are
+ * left unchanged.
+ *
+ * @param <T> type of the patched entities
+ *
+ * @author the_oronco@posteo.net
+ * @since 17/10/2026
+ */
+public final class FieldPatcher<T> {
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final Class<T> type;
+    private final Map<String, MethodHandle> setters;
+    private final Map<Set<String>, Step[]> plans = new ConcurrentHashMap<>();
+
+    private record Step(String field, MethodHandle setter) {}
+
+    private FieldPatcher(Class<T> type, Map<String, MethodHandle> setters) {
+        this.type = type;
+        this.setters = setters;
+    }
+
+    /**
+     * @param type   type of the patched entities
+     * @param fields names of the fields that may be patched, each needs a public setter
+     *
+     * @throws IllegalArgumentException if a field has no public setter
+     */
+    public static <T> FieldPatcher<T> of(Class<T> type, String... fields) {
+        var setters = new HashMap<String, MethodHandle>(fields.length * 2);
+        for (String field : fields) {
+            setters.put(field, setter(type, field));
+        }
+        return new FieldPatcher<>(type, Map.copyOf(setters));
+    }
+
+    private static MethodHandle setter(Class<?> type, String field) {
+        String name = "set" + Character.toUpperCase(field.charAt(0)) + field.substring(1);
+        for (Method method : type.getMethods()) {
+            if (method.getName()
+                      .equals(name) && method.getParameterCount() == 1 && !Modifier.isStatic(method.getModifiers())) {
+                try {
+                    return MethodHandles.publicLookup()
+                                        .unreflect(method)
+                                        .asType(SETTER_TYPE);
+                } catch (IllegalAccessException e) {
+                    throw new IllegalArgumentException("The setter of %s on %s is not accessible!".formatted(field,
+                                                                                                           type.getName()),
+                                                       e);
+                }
+            }
+        }
+        throw new IllegalArgumentException("%s has no setter for the field %s!".formatted(type.getName(), field));
+    }
+
+    /**
+     * Sets every field of the patch that has a value on the target.
+     *
+     * @param target the entity that is changed in place
+     * @param patch  new values by field name
+     *
+     * @return the target
+     *
+     * @throws IllegalArgumentException if the patch contains a field that may not be patched or a value of the wrong
+     *                                  type
+     */
+    public T apply(T target, Map<String, ?> patch) {
+        if (patch.isEmpty()) {
+            return target;
+        }
+        Step[] plan = plans.get(patch.keySet());
+        if (plan == null) {
+            plan = plans.computeIfAbsent(Set.copyOf(patch.keySet()), this::compile);
+        }
+        for (Step step : plan) {
+            Object value = patch.get(step.field());
+            if (value != null) {
+                invoke(step, target, value);
+            }
+        }
+        return target;
+    }
+
+    /**
+     * @return the number of distinct sets of field names a plan was compiled for
+     */
+    int compiledPlans() {
+        return plans.size();
+    }
+
+    private Step[] compile(Set<String> fields) {
+        var plan = new Step[fields.size()];
+        int i = 0;
+        for (String field : fields) {
+            MethodHandle setter = setters.get(field);
+            if (setter == null) {
+                throw new IllegalArgumentException("The field %s of %s cannot be patched!".formatted(field, type.getName()));
+            }
+            plan[i++] = new Step(field, setter);
+        }
+        return plan;
+    }
+
+    private void invoke(Step step, T target, Object value) {
+        try {
+            step.setter()
+                .invokeExact((Object) target, value);
+        } catch (ClassCastException e) {
+            throw new IllegalArgumentException("The value %s does not fit the field %s of %s!".formatted(value,
+                                                                                                       step.field(),
+                                                                                                       type.getName()),
+                                               e);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package the.oronco.graphqldynamicupdate.dfs;
+
+import graphql.ExecutionResult;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimpleInstrumentationContext;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import the.oronco.graphqldynamicupdate.dfs.jfr.OperationEvent;
+
+/**
+ * Records the execution of every operation as an {@link OperationEvent} for Java Flight Recorder. Like all events of
+ * this application it is disabled by default, until a recording enables it this only costs the check of the enabled
+ * flag.
+ *
+ * @author the_oronco@posteo.net
+ * @since 17/10/2026
+ */
+public class FlightRecorderInstrumentation extends SimplePerformantInstrumentation {
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecuteOperation(InstrumentationExecuteOperationParameters parameters,
+                                                                         InstrumentationState state) {
+        var event = OperationEvent.started();
+        var operation = parameters.getExecutionContext()
+                                  .getOperationDefinition();
+        return SimpleInstrumentationContext.whenCompleted((result, throwable) -> {
+            int errorCount = result == null ? 1 : result.getErrors()
+                                                        .size();
+            event.finish(operation.getOperation()
+                                  .name(), operation.getName(), errorCount);
+        });
+    }
+}
@@ -0,0 +1,53 @@
+package the.oronco.graphqldynamicupdate.dfs;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import the.oronco.graphqldynamicupdate.dfs.adt.Option;
+import the.oronco.graphqldynamicupdate.dfs.adt.Result;
+
+/**
+ * Parses the {@code ID}s coming in through the GraphQL API into the {@link UUID}s the {@link Store} is keyed by. Ids are
+ * parsed once at the boundary; an id that is not a UUID cannot reference any domain object.
+ *
+ * @author the_oronco@posteo.net
+ * @since 17/10/2026
+ */
+public final class Ids {
+    private Ids() {
+    }
+
+    public static Option<UUID> parse(String id) {
+        if (id == null || id.length() != 36) {
+            return Option.none();
+        }
+        try {
+            return Option.some(UUID.fromString(id));
+        } catch (IllegalArgumentException e) {
+            return Option.none();
+        }
+    }
+
+    /**
+     * @param ids ids as given by a client
+     *
+     * @return all ids as UUIDs or the ids that are no UUIDs
+     */
+    public static Result<List<UUID>, List<String>> parseAll(Collection<String> ids) {
+        var parsed = new ArrayList<UUID>(ids.size());
+        List<String> invalid = null;
+        for (String id : ids) {
+            switch (parse(id)) {
+                case Option.Some<UUID> some -> parsed.add(some.value());
+                case Option.None<UUID> ignored -> {
+                    if (invalid == null) {
+                        invalid = new ArrayList<>();
+                    }
+                    invalid.add(id);
+                }
+            }
+        }
+        return invalid == null ? Result.ok(parsed) : Result.err(invalid);
+    }
+}
@@ -1,16 +1,22 @@
 package the.oronco.graphqldynamicupdate.dfs;
 
 import com.netflix.graphql.dgs.DgsComponent;
+import com.netflix.graphql.dgs.DgsDataFetchingEnvironment;
 import com.netflix.graphql.dgs.DgsMutation;
 import com.netflix.graphql.dgs.DgsQuery;
 import com.netflix.graphql.dgs.InputArgument;
 import java.time.OffsetDateTime;
 import java.util.Collection;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import lombok.RequiredArgsConstructor;
 import org.springframework.core.convert.ConversionService;
 import the.oronco.graphqldynamicupdate.codegen.types.Material;
+import the.oronco.graphqldynamicupdate.codegen.types.MaterialConnection;
 import the.oronco.graphqldynamicupdate.codegen.types.MaterialCreateIn;
+import the.oronco.graphqldynamicupdate.codegen.types.MaterialEdge;
+import the.oronco.graphqldynamicupdate.dfs.adt.OptionLong;
 
 /**
  * @author the_oronco@posteo.net
@@ -19,24 +25,87 @@ import the.oronco.graphqldynamicupdate.codegen.types.MaterialCreateIn;
 @DgsComponent
 @RequiredArgsConstructor
 public class MaterialDataFetcherer {
+    private static final String CURSOR_KIND = "Material";
+    private static final FieldPatcher<Material> PATCHER = FieldPatcher.of(Material.class, "name", "description");
+
     private final Store store;
+    private final AsyncStore asyncStore;
     private final ConversionService conversionService;
 
     @DgsQuery
-    public Collection<Material> materials() {
-        return store.findAllMaterial();
+    public CompletableFuture<Collection<Material>> materials(DgsDataFetchingEnvironment dfe) {
+        return asyncStore.findAllMaterial(SnapshotInstrumentation.snapshotOf(dfe),
+                                          Projection.selected(dfe.getSelectionSet(), ""));
+    }
+
+    @DgsQuery
+    public CompletableFuture<MaterialConnection> materialsConnection(@InputArgument Integer first,
+                                                                     @InputArgument String after,
+                                                                     DgsDataFetchingEnvironment dfe) {
+        var snapshot = SnapshotInstrumentation.snapshotOf(dfe);
+        boolean withCursors = Cursors.edgeCursorsSelected(dfe.getSelectionSet());
+        var projection = Projection.selected(dfe.getSelectionSet(), Cursors.NODE_PATH);
+        return asyncStore.findMaterialsPage(snapshot,
+                                            Cursors.decode(CURSOR_KIND, after),
+                                            Cursors.pageSize(first),
+                                            projection)
+                         .thenApply(page -> connection(page, after, withCursors));
+    }
+
+    /**
+     * @param withCursors if the edges get a cursor, encoding it is skipped when the client did not select it
+     */
+    private static MaterialConnection connection(Page<Material> page, String after, boolean withCursors) {
+        var edges = page.items()
+                        .stream()
+                        .map(material -> MaterialEdge.newBuilder()
+                                                     .cursor(withCursors ? cursor(material) : null)
+                                                     .node(material)
+                                                     .build())
+                        .toList();
+        return MaterialConnection.newBuilder()
+                                 .edges(edges)
+                                 .pageInfo(Cursors.pageInfo(page, MaterialDataFetcherer::cursor, after != null))
+                                 .build();
+    }
+
+    private static String cursor(Material material) {
+        return Cursors.encode(CURSOR_KIND, material.getId());
     }
 
     @DgsMutation
     public Material createMaterial( @InputArgument MaterialCreateIn in) {
-        var material =Material.newBuilder()
-                              .name(in.getName())
-                              .description(in.getDescription())
-                              .id(UUID.randomUUID()
-                                      .toString())
-                              .createdOn(OffsetDateTime.now())
-                              .updatedOn(OffsetDateTime.now())
-                              .build();
-        return store.saveMaterial(material);
+        return store.saveMaterial(newMaterial(in));
+    }
+
+    /**
+     * Sets only the fields given in the update directly on a copy of the material.
+     */
+    @DgsMutation
+    public CompletableFuture<Material> partialUpdateMaterial(@InputArgument String id,
+                                                             Map<String, String> update,
+                                                             @InputArgument Long expectedVersion) {
+        UUID materialId = Ids.parse(id)
+                             .expectElse(() -> new IllegalArgumentException("No material with id %s found!".formatted(id)));
+        return asyncStore.updateMaterial(new VersionedUpdate<>(materialId, OptionLong.from(expectedVersion), material -> {
+                             PATCHER.apply(material, update);
+                             material.setUpdatedOn(OffsetDateTime.now());
+                             return material;
+                         }))
+                         .thenApply(result -> result.expectElse(Failures::asException));
+    }
+
+    /**
+     * @return a new material with a fresh id that is not saved yet
+     */
+    static Material newMaterial(MaterialCreateIn in) {
+        return Material.newBuilder()
+                       .name(in.getName())
+                       .description(in.getDescription())
+                       .id(UUID.randomUUID()
+                               .toString())
+                       .createdOn(OffsetDateTime.now())
+                       .updatedOn(OffsetDateTime.now())
+                       .build();
     }
 }
@@ -0,0 +1,38 @@
+package the.oronco.graphqldynamicupdate.dfs;
+
+import com.netflix.graphql.dgs.DgsDataLoader;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletionStage;
+import lombok.RequiredArgsConstructor;
+import org.dataloader.BatchLoaderEnvironment;
+import org.dataloader.MappedBatchLoaderWithContext;
+import the.oronco.graphqldynamicupdate.codegen.types.Material;
+
+/**
+ * Batches all material ids that are requested while resolving one response into a single lookup in the
+ * {@link AsyncStore}. Every id is loaded with the {@link Snapshot} of its operation as key context; all ids of one batch
+ * belong to the same operation.
+ *
+ * @author the_oronco@posteo.net
+ * @since 17/10/2026
+ */
+@DgsDataLoader(name = MaterialDataLoader.NAME)
+@RequiredArgsConstructor
+public class MaterialDataLoader implements MappedBatchLoaderWithContext<UUID, Material> {
+    public static final String NAME = "materials";
+
+    private final AsyncStore asyncStore;
+
+    @Override
+    public CompletionStage<Map<UUID, Material>> load(Set<UUID> ids, BatchLoaderEnvironment environment) {
+        Snapshot snapshot = environment.getKeyContextsList()
+                                       .stream()
+                                       .filter(Snapshot.class::isInstance)
+                                       .map(Snapshot.class::cast)
+                                       .findFirst()
+                                       .orElse(Snapshot.LATEST);
+        return asyncStore.findMaterialsByIds(snapshot, ids);
+    }
+}
@@ -0,0 +1,45 @@
+package the.oronco.graphqldynamicupdate.dfs;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes the operations of the {@link Store} as the timer {@code store.operation} and the distribution summary
+ * {@code store.operation.entities}, both tagged by the operation. All meters are registered up front, so recording
+ * does not look anything up in the registry.
+ *
+ * @author the_oronco@posteo.net
+ * @since 17/10/2026
+ */
+public class MicrometerStoreMetrics implements StoreMetrics {
+    private final Map<Operation, Timer> timers = new EnumMap<>(Operation.class);
+    private final Map<Operation, DistributionSummary> entities = new EnumMap<>(Operation.class);
+
+    public MicrometerStoreMetrics(MeterRegistry registry) {
+        for (Operation operation : Operation.values()) {
+            timers.put(operation,
+                       Timer.builder("store.operation")
+                            .description("Duration of a store operation, including appending it to the journal")
+                            .tag("operation", operation.tag())
+                            .register(registry));
+            entities.put(operation,
+                         DistributionSummary.builder("store.operation.entities")
+                                            .description("Number of domain objects a store operation read or wrote")
+                                            .baseUnit("entities")
+                                            .tag("operation", operation.tag())
+                                            .register(registry));
+        }
+    }
+
+    @Override
+    public void record(Operation operation, long startNanos, int entities) {
+        timers.get(operation)
+              .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        this.entities.get(operation)
+                     .record(entities);
+    }
+}
@@ -0,0 +1,189 @@
+package the.oronco.graphqldynamicupdate.dfs;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListSet;
+import the.oronco.graphqldynamicupdate.dfs.Snapshots.Commit;
+import the.oronco.graphqldynamicupdate.dfs.adt.Option;
+
+/**
+ * Multi-version map from {@link UUID}s to domain objects. Every id maps to a chain of versions from newest to oldest,
+ * each stamped with the timestamp of the commit that created it (see {@link Snapshots}). A read at a timestamp walks the
+ * chain until the first version that was committed at or before it; a deletion is a version without a value.
+ * <p>
+ * Ids are additionally kept in sorted order, including the ids of deleted domain objects as long as a snapshot might
+ * still see them, so that pages can be read at a timestamp as well.
+ * <p>
+ * Versions are only staged by writers that hold the stripe of the id, so the head of a chain is always the newest
+ * version, committed or not.
+ * <p>
+ * Every version is kept as a row of the {@link RowCodec} of the index and decoded again on every read.
+ *
+ * @param <T> type of the domain objects
+ *
+ * @author the_oronco@posteo.net
+ * @since 17/10/2026
+ */
+final class MvccIndex<T> {
+    private final UuidIndex<Node<T>> heads = new UuidIndex<>();
+    private final NavigableSet<UUID> idsInOrder = new ConcurrentSkipListSet<>();
+    private final RowCodec<T, Object> codec;
+
+    static final class Node<T> {
+        /**
+         * The encoded domain object or {@code null} for a deletion.
+         */
+        final Object row;
+        volatile long committedAt = Snapshots.PENDING;
+        volatile Node<T> older;
+
+        private Node(Object row, Node<T> older) {
+            this.row = row;
+            this.older = older;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    <R> MvccIndex(RowCodec<T, R> codec) {
+        // rows never leave the index, they are only ever passed back into the codec that created them
+        this.codec = (RowCodec<T, Object>) codec;
+    }
+
+    /**
+     * @return the newest version, even if it is not committed yet; only meaningful while holding the stripe of the id
+     */
+    T staged(UUID id) {
+        Node<T> head = heads.get(id);
+        return head == null ? null : decode(head.row);
+    }
+
+    T get(UUID id, long timestamp) {
+        return get(id, timestamp, Projection.ALL);
+    }
+
+    T get(UUID id, long timestamp, Projection projection) {
+        return visible(heads.get(id), timestamp, projection);
+    }
+
+    T latest(UUID id) {
+        return get(id, Snapshots.LATEST);
+    }
+
+    boolean containsKey(UUID id) {
+        return containsKey(id, Snapshots.LATEST);
+    }
+
+    boolean containsKey(UUID id, long timestamp) {
+        // only the row is looked at, building the domain object is not necessary
+        return visibleRow(heads.get(id), timestamp) != null;
+    }
+
+    /**
+     * @return the number of ids, including those of deleted domain objects that are not reclaimed yet
+     */
+    int estimatedSize() {
+        return heads.size();
+    }
+
+    /**
+     * Stages a new version of the domain object, which becomes visible with the commit.
+     *
+     * @param value the new version or {@code null} to delete the domain object
+     *
+     * @return the previous newest version or {@code null} if there was none
+     */
+    T stage(Commit commit, UUID id, T value) {
+        Node<T> previous = heads.get(id);
+        if (value == null && (previous == null || previous.row == null)) {
+            return null;
+        }
+        var node = new Node<T>(value == null ? null : codec.encode(value), previous);
+        heads.put(id, node);
+        if (value != null) {
+            idsInOrder.add(id);
+        }
+        commit.add(this, id, node);
+        return previous == null ? null : decode(previous.row);
+    }
+
+    List<T> values(long timestamp) {
+        return values(timestamp, Projection.ALL);
+    }
+
+    List<T> values(long timestamp, Projection projection) {
+        var values = new ArrayList<T>();
+        for (Node<T> head : heads.values()) {
+            T value = visible(head, timestamp, projection);
+            if (value != null) {
+                values.add(value);
+            }
+        }
+        return values;
+    }
+
+    Page<T> page(long timestamp, Option<UUID> afterId, int first) {
+        return page(timestamp, afterId, first, Projection.ALL);
+    }
+
+    /**
+     * @param afterId    only domain objects with an id after this one are returned, if any
+     * @param first      maximum number of domain objects to return
+     * @param projection the fields the domain objects are read with
+     *
+     * @return the domain objects visible at the timestamp, ordered by their id
+     */
+    Page<T> page(long timestamp, Option<UUID> afterId, int first, Projection projection) {
+        NavigableSet<UUID> candidates = afterId.mapOr(idsInOrder, id -> idsInOrder.tailSet(id, false));
+        var items = new ArrayList<T>(Math.min(first, 64));
+        var ids = candidates.iterator();
+        while (items.size() < first && ids.hasNext()) {
+            // the id might not exist at the timestamp, either deleted before or created after it
+            var item = get(ids.next(), timestamp, projection);
+            if (item != null) {
+                items.add(item);
+            }
+        }
+        return new Page<>(items, ids.hasNext());
+    }
+
+    /**
+     * Cuts off the versions behind the node, which no snapshot can see anymore. If the node is a deletion that is still
+     * the newest version, the id is removed altogether.
+     *
+     * @return {@code false} if the id has to be removed but its stripe is held by a writer
+     */
+    boolean reclaim(UUID id, Node<T> node, StripedLock locks) {
+        node.older = null;
+        if (node.row != null) {
+            return true;
+        }
+        if (!(locks.tryLock(id) instanceof Option.Some<StripedLock.Held> held)) {
+            return false;
+        }
+        try (var ignored = held.value()) {
+            if (heads.get(id) == node) {
+                heads.remove(id);
+                idsInOrder.remove(id);
+            }
+        }
+        return true;
+    }
+
+    private T visible(Node<T> node, long timestamp, Projection projection) {
+        Object row = visibleRow(node, timestamp);
+        return row == null ? null : codec.decode(row, projection);
+    }
+
+    private static Object visibleRow(Node<?> node, long timestamp) {
+        while (node != null && node.committedAt > timestamp) {
+            node = node.older;
+        }
+        return node == null ? null : node.row;
+    }
+
+    private T decode(Object row) {
+        return row == null ? null : codec.decode(row);
+    }
+}
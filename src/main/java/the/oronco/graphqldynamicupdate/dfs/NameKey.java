@@ -0,0 +1,29 @@
+package the.oronco.graphqldynamicupdate.dfs;
+
+import java.util.Comparator;
+import java.util.UUID;
+
+/**
+ * Position of a product in the name index of the {@link Store}. Products are ordered by their name and products with
+ * the same name by their id, so every product has a distinct position.
+ *
+ * @author the_oronco@posteo.net
+ * @since 17/10/2026
+ */
+public record NameKey(String name, UUID id) implements Comparable<NameKey> {
+    private static final UUID LOWEST_ID = new UUID(Long.MIN_VALUE, Long.MIN_VALUE);
+    private static final Comparator<NameKey> ORDER = Comparator.comparing(NameKey::name)
+                                                               .thenComparing(NameKey::id);
+
+    /**
+     * @return the position before all products whose name starts with the prefix
+     */
+    static NameKey lowest(String prefix) {
+        return new NameKey(prefix, LOWEST_ID);
+    }
+
+    @Override
+    public int compareTo(NameKey other) {
+        return ORDER.compare(this, other);
+    }
+}
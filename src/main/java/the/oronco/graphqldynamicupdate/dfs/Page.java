@@ -0,0 +1,15 @@
+package the.oronco.graphqldynamicupdate.dfs;
+
+import java.util.List;
+
+/**
+ * A slice of an ordered collection of domain objects.
+ *
+ * @param items       the domain objects of this page in order
+ * @param hasNextPage if there are more domain objects after the last one of this page
+ * @param <T>         type of the domain objects
+ *
+ * @author the_oronco@posteo.net
+ * @since 17/10/2026
+ */
+public record Page<T>(List<T> items, boolean hasNextPage) {}
@@ -3,29 +3,45 @@ package the.oronco.graphqldynamicupdate.dfs;
 import static org.mapstruct.MappingConstants.ComponentModel.SPRING;
 
 import com.netflix.graphql.dgs.DgsComponent;
+import com.netflix.graphql.dgs.DgsData;
+import com.netflix.graphql.dgs.DgsDataFetchingEnvironment;
 import com.netflix.graphql.dgs.DgsMutation;
 import com.netflix.graphql.dgs.DgsQuery;
 import com.netflix.graphql.dgs.InputArgument;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 import lombok.RequiredArgsConstructor;
 import org.jetbrains.annotations.NotNull;
+import org.dataloader.DataLoader;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
-import org.mapstruct.NullValuePropertyMappingStrategy;
 import org.springframework.core.convert.ConversionService;
 import org.springframework.core.convert.converter.Converter;
 import the.oronco.graphqldynamicupdate.codegen.types.DeletionResult;
 import the.oronco.graphqldynamicupdate.codegen.types.DeletionSuccess;
 import the.oronco.graphqldynamicupdate.codegen.types.Failure;
+import the.oronco.graphqldynamicupdate.codegen.types.FailureType;
+import the.oronco.graphqldynamicupdate.codegen.types.Material;
 import the.oronco.graphqldynamicupdate.codegen.types.Product;
+import the.oronco.graphqldynamicupdate.codegen.types.ProductConnection;
 import the.oronco.graphqldynamicupdate.codegen.types.ProductCreateIn;
+import the.oronco.graphqldynamicupdate.codegen.types.ProductCreationResult;
+import the.oronco.graphqldynamicupdate.codegen.types.ProductEdge;
 import the.oronco.graphqldynamicupdate.codegen.types.ProductUpdateIn;
+import the.oronco.graphqldynamicupdate.codegen.types.ProductUpdateResult;
+import the.oronco.graphqldynamicupdate.dfs.adt.Option;
+import the.oronco.graphqldynamicupdate.dfs.adt.OptionLong;
 import the.oronco.graphqldynamicupdate.dfs.adt.Result;
+import the.oronco.graphqldynamicupdate.dfs.jfr.MappingEvent;
 
 /**
  * @author the_oronco@posteo.net
@@ -34,33 +50,174 @@ import the.oronco.graphqldynamicupdate.dfs.adt.Result;
 @DgsComponent
 @RequiredArgsConstructor
 public class ProductDataFetcherer {
+    private static final String CURSOR_KIND = "Product";
+    private static final String NAME_CURSOR_KIND = "ProductName";
+    /**
+     * Fields of a material that are filled in a {@link Store#materialReference(UUID) reference}.
+     */
+    private static final Set<String> REFERENCE_FIELDS = Set.of("id", "__typename");
+    private static final FieldPatcher<Product> PATCHER = FieldPatcher.of(Product.class, "name", "description");
+
     private final Store store;
+    private final AsyncStore asyncStore;
     private final ConversionService conversionService;
     private final ProductUpdater productUpdater;
-    private final PartialProductUpdater partialProductUpdater;
     private final MaterialDataFetcherer materialDataFetcherer;
 
 
     @DgsQuery
-    public Collection<Product> products() {
-        return store.findAllProducts();
+    public CompletableFuture<Collection<Product>> products(DgsDataFetchingEnvironment dfe) {
+        return asyncStore.findAllProducts(SnapshotInstrumentation.snapshotOf(dfe),
+                                          Projection.selected(dfe.getSelectionSet(), ""));
+    }
+
+    @DgsQuery
+    public CompletableFuture<ProductConnection> productsConnection(@InputArgument Integer first,
+                                                                   @InputArgument String after,
+                                                                   DgsDataFetchingEnvironment dfe) {
+        var snapshot = SnapshotInstrumentation.snapshotOf(dfe);
+        boolean withCursors = Cursors.edgeCursorsSelected(dfe.getSelectionSet());
+        var projection = Projection.selected(dfe.getSelectionSet(), Cursors.NODE_PATH);
+        return asyncStore.findProductsPage(snapshot,
+                                           Cursors.decode(CURSOR_KIND, after),
+                                           Cursors.pageSize(first),
+                                           projection)
+                         .thenApply(page -> connection(page, after, withCursors, ProductDataFetcherer::cursor));
+    }
+
+    @DgsQuery
+    public CompletableFuture<ProductConnection> productsByName(@InputArgument String prefix,
+                                                               @InputArgument Integer first,
+                                                               @InputArgument String after,
+                                                               DgsDataFetchingEnvironment dfe) {
+        var snapshot = SnapshotInstrumentation.snapshotOf(dfe);
+        boolean withCursors = Cursors.edgeCursorsSelected(dfe.getSelectionSet());
+        var projection = Projection.selected(dfe.getSelectionSet(), Cursors.NODE_PATH);
+        return asyncStore.findProductsByNamePage(snapshot,
+                                                 prefix,
+                                                 Cursors.decodeNamed(NAME_CURSOR_KIND, after),
+                                                 Cursors.pageSize(first),
+                                                 projection)
+                         .thenApply(page -> connection(page, after, withCursors, ProductDataFetcherer::nameCursor));
+    }
+
+    /**
+     * @param withCursors if the edges get a cursor, encoding it is skipped when the client did not select it
+     * @param cursor      encodes the cursor of a product
+     */
+    private static ProductConnection connection(Page<Product> page,
+                                                String after,
+                                                boolean withCursors,
+                                                Function<Product, String> cursor) {
+        var edges = page.items()
+                        .stream()
+                        .map(product -> ProductEdge.newBuilder()
+                                                   .cursor(withCursors ? cursor.apply(product) : null)
+                                                   .node(product)
+                                                   .build())
+                        .toList();
+        return ProductConnection.newBuilder()
+                                .edges(edges)
+                                .pageInfo(Cursors.pageInfo(page, cursor, after != null))
+                                .build();
     }
 
+    private static String cursor(Product product) {
+        return Cursors.encode(CURSOR_KIND, product.getId());
+    }
+
+    private static String nameCursor(Product product) {
+        return Cursors.encodeNamed(NAME_CURSOR_KIND, product.getName(), product.getId());
+    }
+
+    /**
+     * The existence of a material referenced by id is checked by the store while the product is saved, so the material
+     * cannot be deleted in between.
+     */
     @DgsMutation
     public Product createProduct(@InputArgument ProductCreateIn in) {
-        var product = conversionService.convert(in, Product.class);
-        assert product != null;
+        var product = newProduct(in);
         var materialInput = in.getMaterial();
         if (materialInput.getId() != null) {
-            var material = store.findMaterialById(materialInput.getId())
-                                .expectElse(() -> new IllegalArgumentException("No material with the ID %s exists!".formatted(
-                                        materialInput.getId())));
-            product.setMaterial(material);
+            UUID materialId = Ids.parse(materialInput.getId())
+                                 .expectElse(() -> new IllegalArgumentException("No material with the ID %s exists!".formatted(
+                                         materialInput.getId())));
+            product.setMaterial(Store.materialReference(materialId));
         } else {
             product.setMaterial(materialDataFetcherer.createMaterial(materialInput.getNew()));
         }
 
-        return store.saveProduct(product);
+        return store.saveProduct(product)
+                    .expectElse(Failures::asException);
+    }
+
+    /**
+     * Creates all products with one store operation. Materials referenced by id are checked together while saving,
+     * inline materials are created in the same operation.
+     *
+     * @return for every input in the same order the created product or the reason it was not created
+     */
+    @DgsMutation
+    public List<ProductCreationResult> createProducts(@InputArgument List<ProductCreateIn> in) {
+        var results = new ProductCreationResult[in.size()];
+        var newMaterials = new ArrayList<Material>();
+        var products = new ArrayList<Product>(in.size());
+        var positions = new int[in.size()];
+
+        for (int i = 0; i < in.size(); i++) {
+            var item = in.get(i);
+            var product = newProduct(item);
+            var materialInput = item.getMaterial();
+            if (materialInput.getId() == null) {
+                var material = MaterialDataFetcherer.newMaterial(materialInput.getNew());
+                newMaterials.add(material);
+                product.setMaterial(material);
+            } else if (Ids.parse(materialInput.getId()) instanceof Option.Some<UUID> materialId) {
+                product.setMaterial(Store.materialReference(materialId.value()));
+            } else {
+                results[i] = new Failure("A Material for the id %s does not exist!".formatted(materialInput.getId()),
+                                         FailureType.Missing);
+                continue;
+            }
+            positions[products.size()] = i;
+            products.add(product);
+        }
+
+        var saved = store.saveProducts(newMaterials, products);
+        for (int j = 0; j < saved.size(); j++) {
+            results[positions[j]] = switch (saved.get(j)) {
+                case Result.Ok<Product, Failure> ok -> ok.result();
+                case Result.Err<Product, Failure> err -> err.error();
+            };
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Resolves the material of a product only when it is selected. All materials of one response are loaded together
+     * through the {@link MaterialDataLoader}, at the same point in time as the product. If only the id of the material
+     * is selected, the reference the product holds already answers it and the material is not loaded at all.
+     */
+    @DgsData(parentType = "Product", field = "material")
+    public CompletableFuture<Material> material(DgsDataFetchingEnvironment dfe) {
+        Product product = dfe.getSource();
+        if (dfe.getSelectionSet()
+               .getImmediateFields()
+               .stream()
+               .allMatch(field -> REFERENCE_FIELDS.contains(field.getName()))) {
+            return CompletableFuture.completedFuture(product.getMaterial());
+        }
+        DataLoader<UUID, Material> materials = dfe.getDataLoader(MaterialDataLoader.class);
+        return materials.load(UUID.fromString(product.getMaterial()
+                                                     .getId()), SnapshotInstrumentation.snapshotOf(dfe));
+    }
+
+    private Product newProduct(ProductCreateIn in) {
+        var event = MappingEvent.started();
+        var product = conversionService.convert(in, Product.class);
+        assert product != null;
+        event.finish("create", ProductCreateIn.class, Product.class);
+        return product;
     }
 
     @Mapper(componentModel = SPRING, imports = {UUID.class, OffsetDateTime.class})
@@ -69,17 +226,71 @@ public class ProductDataFetcherer {
         @Mapping(target = "updatedOn", expression = "java(OffsetDateTime.now())")
         @Mapping(target = "createdOn", expression = "java(OffsetDateTime.now())")
         @Mapping(target = "material", ignore = true)
+        @Mapping(target = "version", ignore = true)
         @Override
         Product convert(@NotNull ProductCreateIn source);
     }
 
 
     @DgsMutation
-    public Product updateProduct(@InputArgument String id, @InputArgument ProductUpdateIn update) {
-        Product product = store.findProductById(id)
-                               .expectElse(() -> new IllegalArgumentException(("No product with "
-                                                                               + "id %s found!").formatted(id)));
-        return productUpdater.updateWith(product, update);
+    public CompletableFuture<Product> updateProduct(@InputArgument String id,
+                                                    @InputArgument ProductUpdateIn update,
+                                                    @InputArgument Long expectedVersion) {
+        return asyncStore.updateProduct(new VersionedUpdate<>(productId(id),
+                                                              OptionLong.from(expectedVersion),
+                                                              product -> updateWith(product, update)))
+                         .thenApply(result -> result.expectElse(Failures::asException));
+    }
+
+    private Product updateWith(Product product, ProductUpdateIn update) {
+        var event = MappingEvent.started();
+        var updated = productUpdater.updateWith(product, update);
+        event.finish("update", ProductUpdateIn.class, Product.class);
+        return updated;
+    }
+
+    private static UUID productId(String id) {
+        return Ids.parse(id)
+                  .expectElse(() -> new IllegalArgumentException("No product with id %s found!".formatted(id)));
+    }
+
+    /**
+     * Applies all partial updates in one store operation. The arguments are read raw, so that the patches only contain
+     * the fields a client actually sent.
+     *
+     * @return for every update in the same order the updated product or the reason it was not updated
+     */
+    @DgsMutation
+    public List<ProductUpdateResult> partialUpdateProducts(DgsDataFetchingEnvironment dfe) {
+        List<Map<String, Object>> updates = dfe.getArgument("updates");
+        var results = new ProductUpdateResult[updates.size()];
+        var versionedUpdates = new ArrayList<VersionedUpdate<Product>>(updates.size());
+        var positions = new int[updates.size()];
+        var now = OffsetDateTime.now();
+
+        for (int i = 0; i < updates.size(); i++) {
+            var item = updates.get(i);
+            String id = (String) item.get("id");
+            if (Ids.parse(id) instanceof Option.Some<UUID> productId) {
+                //noinspection unchecked
+                var update = (Map<String, ?>) item.get("update");
+                positions[versionedUpdates.size()] = i;
+                versionedUpdates.add(new VersionedUpdate<>(productId.value(),
+                                                           OptionLong.from((Long) item.get("expectedVersion")),
+                                                           product -> patch(product, update, now)));
+            } else {
+                results[i] = new Failure("A Product for the id %s does not exist!".formatted(id), FailureType.Missing);
+            }
+        }
+
+        var updated = store.updateProducts(versionedUpdates);
+        for (int j = 0; j < updated.size(); j++) {
+            results[positions[j]] = switch (updated.get(j)) {
+                case Result.Ok<Product, Failure> ok -> ok.result();
+                case Result.Err<Product, Failure> err -> err.error();
+            };
+        }
+        return Arrays.asList(results);
     }
 
     @Mapper(componentModel = SPRING, imports = OffsetDateTime.class)
@@ -89,34 +300,46 @@ public class ProductDataFetcherer {
         @Mapping(target = "material", ignore = true)
         @Mapping(target = "id", ignore = true)
         @Mapping(target = "createdOn", ignore = true)
+        @Mapping(target = "version", ignore = true)
         Product updateWith(@MappingTarget Product product, ProductUpdateIn update);
 
         @Override
         ProductUpdateIn convert(@NotNull Product source);
     }
 
+    /**
+     * Sets only the fields given in the update directly on a copy of the product.
+     */
     @DgsMutation
-    public Product partialUpdateProduct(@InputArgument String id, Map<String, String> update) {
-        Product updatedProduct = store.findProductById(id)
-                                      .expectElse(() -> new IllegalArgumentException(("No product with id %s found!").formatted(id)));
-        ProductUpdateIn dataAllowedToUpdate = conversionService.convert(updatedProduct, ProductUpdateIn.class);
-        var updateData = partialProductUpdater.updateWith(dataAllowedToUpdate, update);
-
-        return productUpdater.updateWith(updatedProduct, updateData);
+    public CompletableFuture<Product> partialUpdateProduct(@InputArgument String id,
+                                                           Map<String, String> update,
+                                                           @InputArgument Long expectedVersion) {
+        return asyncStore.updateProduct(new VersionedUpdate<>(productId(id),
+                                                              OptionLong.from(expectedVersion),
+                                                              product -> patch(product, update, OffsetDateTime.now())))
+                         .thenApply(result -> result.expectElse(Failures::asException));
     }
 
-
-    @Mapper(componentModel = SPRING, nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
-    interface PartialProductUpdater {
-
-        @Mapping(target = "description", source = "description")
-        @Mapping(target = "name", source = "name")
-        ProductUpdateIn updateWith(@MappingTarget ProductUpdateIn product, Map<String, String> update);
+    private static Product patch(Product product, Map<String, ?> update, OffsetDateTime now) {
+        var event = MappingEvent.started();
+        PATCHER.apply(product, update);
+        product.setUpdatedOn(now);
+        event.finish("patch", Map.class, Product.class);
+        return product;
     }
 
     @DgsMutation
-    public DeletionResult deleteProducts(List<String> ids) {
-        return switch (store.deleteProducts(ids)) {
+    public CompletableFuture<DeletionResult> deleteProducts(List<String> ids) {
+        return switch (Ids.parseAll(ids)) {
+            case Result.Err<List<UUID>, List<String>> invalid -> CompletableFuture.completedFuture(new Failure(
+                    "Products for the ids %s do not exist!".formatted(invalid.error()), FailureType.Missing));
+            case Result.Ok<List<UUID>, List<String>> parsed -> asyncStore.deleteProducts(parsed.result())
+                                                                         .thenApply(ProductDataFetcherer::deletionResult);
+        };
+    }
+
+    private static DeletionResult deletionResult(Result<List<Product>, Failure> deleted) {
+        return switch (deleted) {
             case Result.Err<List<Product>, Failure> err -> err.error();
             case Result.Ok<List<Product>, Failure> ok -> new DeletionSuccess(ok.result()
                                                                                .stream()
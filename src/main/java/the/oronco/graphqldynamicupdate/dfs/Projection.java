@@ -0,0 +1,44 @@
+package the.oronco.graphqldynamicupdate.dfs;
+
+import graphql.schema.DataFetchingFieldSelectionSet;
+
+/**
+ * The fields of the domain objects a read actually needs. {@link StoreLayout#COMPACT} builds only these fields from
+ * its rows and leaves the others {@code null}, which skips the timestamps and the material reference of every row when
+ * the client did not select them. {@link StoreLayout#OBJECTS} hands out the stored objects with all fields either way.
+ * The id is always filled, cursors and data loaders depend on it.
+ *
+ * @author the_oronco@posteo.net
+ * @since 17/10/2026
+ */
+public record Projection(boolean version,
+                         boolean name,
+                         boolean description,
+                         boolean createdOn,
+                         boolean updatedOn,
+                         boolean material) {
+    public static final Projection ALL = new Projection(true, true, true, true, true, true);
+
+    /**
+     * @param selectionSet the selection of the field that returns the domain objects
+     * @param path         the path of the domain objects within the selection, e.g. {@code "edges/node/"}, or an empty
+     *                     string if the field returns them directly
+     *
+     * @return the fields of the domain objects that are selected
+     */
+    static Projection selected(DataFetchingFieldSelectionSet selectionSet, String path) {
+        return new Projection(selectionSet.contains(path + "version"),
+                              selectionSet.contains(path + "name"),
+                              selectionSet.contains(path + "description"),
+                              selectionSet.contains(path + "createdOn"),
+                              selectionSet.contains(path + "updatedOn"),
+                              selectionSet.contains(path + "material"));
+    }
+
+    /**
+     * @return this projection with the name, for reads that look at the name themselves
+     */
+    Projection withName() {
+        return name ? this : new Projection(version, true, description, createdOn, updatedOn, material);
+    }
+}
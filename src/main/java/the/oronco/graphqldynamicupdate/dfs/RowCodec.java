@@ -0,0 +1,44 @@
+package the.oronco.graphqldynamicupdate.dfs;
+
+/**
+ * Converts domain objects into the rows an {@link MvccIndex} keeps and back. Rows are never changed after they were
+ * encoded, every version of a domain object gets its own row.
+ *
+ * @param <T> type of the domain objects
+ * @param <R> type of the rows
+ *
+ * @author the_oronco@posteo.net
+ * @since 17/10/2026
+ */
+interface RowCodec<T, R> {
+
+    R encode(T value);
+
+    T decode(R row);
+
+    /**
+     * Codecs that build the domain object from the row only need to build the projected fields.
+     *
+     * @return the domain object with at least the projected fields
+     */
+    default T decode(R row, Projection projection) {
+        return decode(row);
+    }
+
+    /**
+     * @return a codec that stores the domain objects themselves
+     */
+    static <T> RowCodec<T, T> identity() {
+        return new RowCodec<>() {
+            @Override
+            public T encode(T value) {
+                return value;
+            }
+
+            @Override
+            public T decode(T row) {
+                return row;
+            }
+        };
+    }
+}
@@ -0,0 +1,43 @@
+package the.oronco.graphqldynamicupdate.dfs;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A point in time view of the {@link Store}. Everything read through the same snapshot belongs to the state after one
+ * and the same write, no matter how many writes happen while the snapshot is read.
+ * <p>
+ * Snapshots opened with {@link Store#snapshot()} keep the versions they can see alive and have to be closed once the
+ * reader is done. {@link #LATEST} is not a point in time, every read through it sees the newest committed state.
+ *
+ * @author the_oronco@posteo.net
+ * @since 17/10/2026
+ */
+public final class Snapshot implements AutoCloseable {
+    public static final Snapshot LATEST = new Snapshot(null, Snapshots.LATEST);
+
+    private final Snapshots snapshots;
+    private final long timestamp;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    Snapshot(Snapshots snapshots, long timestamp) {
+        this.snapshots = snapshots;
+        this.timestamp = timestamp;
+    }
+
+    /**
+     * @return the commit timestamp of the newest write this snapshot sees
+     */
+    long timestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Releases the versions only this snapshot could still see. Closing a snapshot more than once has no effect.
+     */
+    @Override
+    public void close() {
+        if (snapshots != null && closed.compareAndSet(false, true)) {
+            snapshots.release(timestamp);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package the.oronco.graphqldynamicupdate.dfs;
+
+import graphql.ExecutionResult;
+import graphql.execution.ExecutionContext;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimpleInstrumentationContext;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import graphql.language.OperationDefinition.Operation;
+import graphql.schema.DataFetchingEnvironment;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Opens a {@link Snapshot} of the {@link Store} for every query and puts it into the {@link graphql.GraphQLContext},
+ * so that all data fetchers and data loaders of the query read the same point in time. The snapshot is closed once
+ * the whole result, including deferred data loader calls, is complete.
+ * <p>
+ * Mutations are not given a snapshot; they read the newest committed state, as their writes have to be based on it.
+ *
+ * @author the_oronco@posteo.net
+ * @since 17/10/2026
+ */
+@RequiredArgsConstructor
+public class SnapshotInstrumentation extends SimplePerformantInstrumentation {
+    private final Store store;
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecuteOperation(InstrumentationExecuteOperationParameters parameters,
+                                                                         InstrumentationState state) {
+        ExecutionContext executionContext = parameters.getExecutionContext();
+        if (executionContext.getOperationDefinition()
+                            .getOperation() != Operation.QUERY) {
+            return SimpleInstrumentationContext.noOp();
+        }
+
+        Snapshot snapshot = store.snapshot();
+        executionContext.getGraphQLContext()
+                        .put(Snapshot.class, snapshot);
+        return SimpleInstrumentationContext.whenCompleted((result, throwable) -> snapshot.close());
+    }
+
+    /**
+     * @return the snapshot of the operation the field belongs to, or {@link Snapshot#LATEST} outside of queries
+     */
+    static Snapshot snapshotOf(DataFetchingEnvironment dfe) {
+        return dfe.getGraphQlContext()
+                  .getOrDefault(Snapshot.class, Snapshot.LATEST);
+    }
+}
@@ -1,33 +1,165 @@
 package the.oronco.graphqldynamicupdate.dfs;
 
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableSet;
 import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
-import lombok.NoArgsConstructor;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Stream;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 import the.oronco.graphqldynamicupdate.codegen.types.Failure;
 import the.oronco.graphqldynamicupdate.codegen.types.FailureType;
 import the.oronco.graphqldynamicupdate.codegen.types.Material;
 import the.oronco.graphqldynamicupdate.codegen.types.Product;
+import the.oronco.graphqldynamicupdate.dfs.Snapshots.Commit;
+import the.oronco.graphqldynamicupdate.dfs.StoreMetrics.Operation;
 import the.oronco.graphqldynamicupdate.dfs.adt.Option;
+import the.oronco.graphqldynamicupdate.dfs.adt.OptionLong;
 import the.oronco.graphqldynamicupdate.dfs.adt.Result;
 import the.oronco.graphqldynamicupdate.dfs.adt.Result.GOOD;
+import the.oronco.graphqldynamicupdate.dfs.jfr.StoreOperationEvent;
+import the.oronco.graphqldynamicupdate.dfs.persistence.JournalEntry;
+import the.oronco.graphqldynamicupdate.dfs.persistence.JournalEntry.Batch;
+import the.oronco.graphqldynamicupdate.dfs.persistence.JournalEntry.MaterialDeleted;
+import the.oronco.graphqldynamicupdate.dfs.persistence.JournalEntry.MaterialSaved;
+import the.oronco.graphqldynamicupdate.dfs.persistence.JournalEntry.ProductSaved;
+import the.oronco.graphqldynamicupdate.dfs.persistence.JournalEntry.ProductsDeleted;
+import the.oronco.graphqldynamicupdate.dfs.persistence.StoreJournal;
 
 /**
+ * In memory storage of all domain objects that is safe to be used by all DGS worker threads at once.
+ * <p>
+ * Domain objects are kept in {@link MvccIndex}es keyed by their UUID; callers parse the ids of the GraphQL API once
+ * with {@link Ids}. Reads never lock. Writes lock the stripe of every id they touch (see {@link StripedLock}), so that
+ * operations spanning multiple ids like {@link #deleteProducts(List)} check and mutate atomically with respect to all
+ * other writers.
+ * <p>
+ * Every write is committed as a whole with the next timestamp of the commit clock (see {@link Snapshots}), and the
+ * previous versions are kept as long as an open {@link Snapshot} may see them. A query that reads all its data through
+ * one snapshot therefore sees a single point in time, without ever waiting on a writer. Reads through
+ * {@link Snapshot#LATEST} see the newest committed state of every single domain object instead.
+ * <p>
+ * Next to the primary maps the store keeps a reverse index from the id of a material to the ids of all products that
+ * use it. It is maintained by every product write, so that referential integrity checks only cost the number of
+ * referencing products. Products do not embed their material, they only hold a reference carrying its id (see
+ * {@link #materialReference(UUID)}); the material itself is resolved separately when a client selects it.
+ * <p>
+ * Ids of products and materials are additionally kept in sorted order, so that pages of them can be fetched in
+ * {@code O(log n + page size)} starting after any id, even while other ids are inserted or removed concurrently.
+ * Products are also kept ordered by their name, so that they can be searched by a prefix of it just as fast.
+ * <p>
+ * Stored domain objects are never changed in place. Depending on the {@link StoreLayout} the store keeps them as they
+ * are or as compact rows that are decoded on every read. Every save stores a new object with the next version, updates
+ * change a copy and only store it if the version did not move in the meantime (see {@link VersionedUpdate}). Writers of
+ * different domain objects therefore never wait on each other, and readers never see half of a change.
+ * <p>
+ * Every mutation is appended to the {@link StoreJournal} before it is staged and committed in memory, while the stripes
+ * are held throughout. Readers therefore never see a change that could be lost because its append failed. On
+ * construction the journal replays the persisted state; only an empty store is seeded with example data.
+ * <p>
+ * The duration and size of every bulk or write operation is reported to the {@link StoreMetrics}.
+ *
  * @author the_oronco@posteo.net
  * @since 24/02/2024
  */
 @Repository
-@NoArgsConstructor
 public class Store {
-    private static final Map<String, Product> products = new HashMap<>();
-    private static final Map<String, Material> materials = new HashMap<>();
+    private static final int MAX_UPDATE_ATTEMPTS = 16;
 
-    static {
+    private final MvccIndex<Product> products;
+    private final MvccIndex<Material> materials;
+    private final ConcurrentMap<UUID, Set<UUID>> productIdsByMaterialId = new ConcurrentHashMap<>();
+    private final NavigableSet<NameKey> productsByName = new ConcurrentSkipListSet<>();
+    private final StripedLock locks = new StripedLock();
+    private final Snapshots snapshots = new Snapshots(locks);
+    private final StoreJournal journal;
+    private final StoreMetrics metrics;
+
+    public Store(StoreJournal journal) {
+        this(journal, StoreMetrics.NONE);
+    }
+
+    public Store(StoreJournal journal, StoreMetrics metrics) {
+        this(journal, metrics, StoreLayout.OBJECTS);
+    }
+
+    @Autowired
+    public Store(StoreJournal journal, StoreMetrics metrics, StoreLayout layout) {
+        this.journal = journal;
+        this.metrics = metrics;
+        this.products = switch (layout) {
+            case OBJECTS -> new MvccIndex<>(RowCodec.<Product>identity());
+            case COMPACT -> new MvccIndex<>(CompactRows.PRODUCTS);
+        };
+        this.materials = switch (layout) {
+            case OBJECTS -> new MvccIndex<>(RowCodec.<Material>identity());
+            case COMPACT -> new MvccIndex<>(CompactRows.MATERIALS);
+        };
+        long recovered = journal.open(this::replay, this::contents);
+        if (recovered == 0) {
+            seed();
+        }
+    }
+
+    private void replay(JournalEntry entry) {
+        apply(entry);
+        snapshots.reclaim();
+    }
+
+    /**
+     * Appends the entry to the journal and only then applies it, so that a failed append leaves the store untouched.
+     * Must hold the stripes of every id of the entry.
+     */
+    private void write(JournalEntry entry) {
+        journal.append(entry);
+        apply(entry);
+    }
+
+    /**
+     * Stages the entry and commits it as a whole.
+     */
+    private void apply(JournalEntry entry) {
+        var commit = new Commit();
+        stage(commit, entry);
+        snapshots.commit(commit);
+    }
+
+    private void stage(Commit commit, JournalEntry entry) {
+        switch (entry) {
+            case ProductSaved(Product product) -> putProduct(commit, product);
+            case ProductsDeleted(List<String> ids) -> ids.forEach(id -> removeProduct(commit, UUID.fromString(id)));
+            case MaterialSaved(Material material) -> putMaterial(commit, material);
+            case MaterialDeleted(String id) -> removeMaterial(commit, UUID.fromString(id));
+            case Batch(List<JournalEntry> entries) -> entries.forEach(nested -> stage(commit, nested));
+        }
+    }
+
+    /**
+     * Waits for the writers that are between their append and their commit, the journal may have started a new log
+     * right after their append and expects the contents to include it.
+     */
+    private Stream<JournalEntry> contents() {
+        locks.awaitReleased();
+        try (Snapshot snapshot = snapshot()) {
+            return Stream.concat(findAllMaterial(snapshot).stream()
+                                                          .map(MaterialSaved::new),
+                                 findAllProducts(snapshot).stream()
+                                                          .map(ProductSaved::new));
+        }
+    }
+
+    private void seed() {
         Material steel = Material.newBuilder()
                                  .name("steel")
                                  .description("What a steel!")
@@ -46,84 +178,756 @@ public class Store {
                                .material(steel)
                                .build();
 
-        materials.put(steel.getId(), steel);
-        products.put(knoif.getId(), knoif);
+        saveMaterial(steel);
+        saveProduct(knoif).expect("the material was just saved");
     }
 
-    public Collection<Product> findAllProducts() {
-        return products.values();
+    /**
+     * Opens a point in time view of the store. It has to be closed, otherwise the versions it sees are never reclaimed.
+     *
+     * @return a snapshot of the newest committed state
+     */
+    public Snapshot snapshot() {
+        return snapshots.open();
     }
 
-    public Option<Product> findProductById(String id) {
-        return Option.from(products.get(id));
+    public Collection<Product> findAllProducts(Snapshot snapshot) {
+        return findAllProducts(snapshot, Projection.ALL);
     }
 
-    public Product saveProduct(Product product) {
-        products.put(product.getId(), product);
-        return product;
+    public Collection<Product> findAllProducts(Snapshot snapshot, Projection projection) {
+        long start = System.nanoTime();
+        var event = StoreOperationEvent.started();
+        var all = products.values(snapshot.timestamp(), projection);
+        record(Operation.FIND_ALL_PRODUCTS, start, event, all.size());
+        return all;
     }
 
-    public Result<Product, Failure> deleteProduct(String id) {
-        return Option.from(products.remove(id))
-                     .okOr(new Failure("A Product for the id %s does not exist!".formatted(id), FailureType.Missing));
+    public Option<Product> findProductById(UUID id) {
+        return Option.from(products.latest(id));
     }
 
-    public Result<List<Product>, Failure> deleteProducts(List<String> ids) {
-        var nonExistentProductIds = ids.stream()
-                                       .filter(id -> !products.containsKey(id))
-                                       .toList();
+    /**
+     * Saves the product and moves it in the material index from its previous material to its current one. The material
+     * of the product is replaced by a reference to it.
+     * <p>
+     * The stripes of the product and its current material are held while the material is checked, so a concurrent
+     * {@link #deleteMaterial(UUID)} of that material either sees the new reference or runs before the check. The
+     * previous material is not locked; it only loses a reference which can at worst make a concurrent deletion of it
+     * fail spuriously.
+     *
+     * @param product the product to save, it gets the next version
+     *
+     * @return the saved product, or a failure if its material does not exist
+     */
+    public Result<Product, Failure> saveProduct(Product product) {
+        long start = System.nanoTime();
+        var event = StoreOperationEvent.started();
+        UUID productId = UUID.fromString(product.getId());
+        UUID materialId = UUID.fromString(product.getMaterial()
+                                                 .getId());
+        Result<Product, Failure> result;
+        try (var ignored = locks.lockAll(List.of(productId, materialId))) {
+            if (materials.staged(materialId) == null) {
+                result = Result.err(missing("Material", materialId));
+            } else {
+                product.setMaterial(materialReference(materialId));
+                product.setVersion(nextProductVersion(productId));
+                write(new ProductSaved(product));
+                result = Result.ok(product);
+            }
+        }
+        snapshots.reclaim();
+        record(Operation.SAVE_PRODUCT, start, event, 1);
+        return result;
+    }
+
+    /**
+     * Saves the new materials and all products whose material exists in one operation. The stripes of all involved ids
+     * are held at once and everything that was saved is appended to the journal as a single record, so concurrent
+     * writers and a recovery see either all of it or nothing.
+     *
+     * @param newMaterials materials that are created together with the products, they may be used by the products
+     * @param products     products to save, their material is replaced by a reference to it
+     *
+     * @return for every product in the same order either the saved product or a failure if its material does not exist
+     */
+    public List<Result<Product, Failure>> saveProducts(List<Material> newMaterials, List<Product> products) {
+        long start = System.nanoTime();
+        var event = StoreOperationEvent.started();
+        var ids = new ArrayList<UUID>(newMaterials.size() + products.size() * 2);
+        for (Material material : newMaterials) {
+            ids.add(UUID.fromString(material.getId()));
+        }
+        for (Product product : products) {
+            ids.add(UUID.fromString(product.getId()));
+            ids.add(UUID.fromString(product.getMaterial()
+                                           .getId()));
+        }
+
+        List<Result<Product, Failure>> results;
+        try (var ignored = locks.lockAll(ids)) {
+            // nothing is staged before the append, so ids that occur twice get their versions from these
+            var materialVersions = new HashMap<UUID, Long>(newMaterials.size() * 2);
+            var productVersions = new HashMap<UUID, Long>(products.size() * 2);
+            var saved = new ArrayList<JournalEntry>(newMaterials.size() + products.size());
+            for (Material material : newMaterials) {
+                UUID id = UUID.fromString(material.getId());
+                material.setVersion(materialVersions.merge(id,
+                                                           nextMaterialVersion(id),
+                                                           (previous, next) -> previous + 1));
+                saved.add(new MaterialSaved(material));
+            }
+
+            results = new ArrayList<>(products.size());
+            for (Product product : products) {
+                UUID materialId = UUID.fromString(product.getMaterial()
+                                                         .getId());
+                if (!materialVersions.containsKey(materialId) && materials.staged(materialId) == null) {
+                    results.add(Result.err(new Failure("A Material for the id %s does not exist!".formatted(materialId),
+                                                       FailureType.Missing)));
+                    continue;
+                }
+                UUID id = UUID.fromString(product.getId());
+                product.setMaterial(materialReference(materialId));
+                product.setVersion(productVersions.merge(id, nextProductVersion(id), (previous, next) -> previous + 1));
+                saved.add(new ProductSaved(product));
+                results.add(Result.ok(product));
+            }
+
+            if (!saved.isEmpty()) {
+                write(new Batch(saved));
+            }
+        }
+        snapshots.reclaim();
+        record(Operation.SAVE_PRODUCTS, start, event, newMaterials.size() + products.size());
+        return results;
+    }
+
+    /**
+     * Updates a product optimistically. The change is applied to a copy of the current product without holding any
+     * lock; the copy is then stored only if the product still has the version the copy was made from.
+     *
+     * @param update the change of the product
+     *
+     * @return the updated product, or a failure if the product does not exist or does not have the expected version
+     */
+    public Result<Product, Failure> updateProduct(VersionedUpdate<Product> update) {
+        long start = System.nanoTime();
+        var event = StoreOperationEvent.started();
+        var result = tryUpdateProduct(update);
+        record(Operation.UPDATE_PRODUCT, start, event, 1);
+        return result;
+    }
+
+    private Result<Product, Failure> tryUpdateProduct(VersionedUpdate<Product> update) {
+        UUID id = update.id();
+        for (int attempt = 0; attempt < MAX_UPDATE_ATTEMPTS; attempt++) {
+            Product current = products.latest(id);
+            if (current == null) {
+                return Result.err(missing("Product", id));
+            }
+            long version = current.getVersion();
+            if (update.expectedVersion() instanceof OptionLong.Some expected && expected.value() != version) {
+                return Result.err(versionConflict("Product", id, expected.value(), version));
+            }
+
+            Product updated = keepsMaterial(current, update.change()
+                                                           .apply(copy(current)));
+            updated.setVersion(version + 1);
+            if (compareAndPutProduct(id, version, updated)) {
+                snapshots.reclaim();
+                return Result.ok(updated);
+            }
+        }
+        return Result.err(new Failure("The Product %s kept changing, gave up after %d attempts!".formatted(id,
+                                                                                                            MAX_UPDATE_ATTEMPTS),
+                                      FailureType.VersionConflict));
+    }
+
+    /**
+     * Only the stripe of the product is held while an update is stored, which is enough because an update keeps the
+     * material of the product and therefore never touches the material index.
+     */
+    private boolean compareAndPutProduct(UUID id, long expectedVersion, Product product) {
+        try (var ignored = locks.lock(id)) {
+            Product stored = products.staged(id);
+            if (stored == null || stored.getVersion() != expectedVersion) {
+                return false;
+            }
+            write(new ProductSaved(product));
+            return true;
+        }
+    }
+
+    /**
+     * Updates many products in one operation. The stripes of all ids are held at once, so no update has to be retried,
+     * and all updated products are appended to the journal as a single record. As the updates keep the material of
+     * every product, the stripes of the materials are not needed.
+     *
+     * @param updates the changes of the products
+     *
+     * @return for every update in the same order either the updated product or a failure if the product does not exist
+     * or does not have the expected version
+     */
+    public List<Result<Product, Failure>> updateProducts(List<VersionedUpdate<Product>> updates) {
+        long start = System.nanoTime();
+        var event = StoreOperationEvent.started();
+        var ids = updates.stream()
+                         .map(VersionedUpdate::id)
+                         .toList();
+        List<Result<Product, Failure>> results;
+        try (var ignored = locks.lockAll(ids)) {
+            // every change is applied and checked before the first one is staged, so a change that throws leaves the
+            // store untouched
+            var updated = new HashMap<UUID, Product>(updates.size() * 2);
+            var changed = new ArrayList<Product>(updates.size());
+            results = new ArrayList<>(updates.size());
+            for (VersionedUpdate<Product> update : updates) {
+                UUID id = update.id();
+                Product current = updated.containsKey(id) ? updated.get(id) : products.staged(id);
+                if (current == null) {
+                    results.add(Result.err(missing("Product", id)));
+                    continue;
+                }
+                long version = current.getVersion();
+                if (update.expectedVersion() instanceof OptionLong.Some expected && expected.value() != version) {
+                    results.add(Result.err(versionConflict("Product", id, expected.value(), version)));
+                    continue;
+                }
+
+                Product product = keepsMaterial(current, update.change()
+                                                               .apply(copy(current)));
+                product.setVersion(version + 1);
+                updated.put(id, product);
+                changed.add(product);
+                results.add(Result.ok(product));
+            }
+
+            if (!changed.isEmpty()) {
+                write(new Batch(changed.stream()
+                                       .<JournalEntry>map(ProductSaved::new)
+                                       .toList()));
+            }
+        }
+        snapshots.reclaim();
+        record(Operation.UPDATE_PRODUCTS, start, event, updates.size());
+        return results;
+    }
+
+    private static Product keepsMaterial(Product current, Product updated) {
+        if (!sameMaterial(current, updated)) {
+            throw new IllegalArgumentException("An update must not change the material of the product %s!".formatted(
+                    current.getId()));
+        }
+        return updated;
+    }
+
+    private long nextProductVersion(UUID id) {
+        Product previous = products.staged(id);
+        return previous == null ? 1 : previous.getVersion() + 1;
+    }
+
+    private static Product copy(Product product) {
+        return Product.newBuilder()
+                      .id(product.getId())
+                      .version(product.getVersion())
+                      .name(product.getName())
+                      .description(product.getDescription())
+                      .createdOn(product.getCreatedOn())
+                      .updatedOn(product.getUpdatedOn())
+                      .material(product.getMaterial())
+                      .build();
+    }
+
+    private void putProduct(Commit commit, Product product) {
+        UUID id = UUID.fromString(product.getId());
+        var previous = products.stage(commit, id, product);
+        reindexMaterial(id, previous, product);
+        reindexName(id, previous, product);
+    }
+
+    private void removeProduct(Commit commit, UUID id) {
+        var removed = products.stage(commit, id, null);
+        if (removed != null) {
+            reindexMaterial(id, removed, null);
+            reindexName(id, removed, null);
+        }
+    }
+
+    /**
+     * Moves the product in the name index. The new position is added before the previous one is removed, so that
+     * lock-free readers never miss a product that keeps its name.
+     *
+     * @param previous the previous version of the product, {@code null} if it is new
+     * @param current  the new version of the product, {@code null} if it is deleted
+     */
+    private void reindexName(UUID id, Product previous, Product current) {
+        if (current != null) {
+            productsByName.add(new NameKey(current.getName(), id));
+        }
+        if (previous != null && (current == null || !previous.getName()
+                                                             .equals(current.getName()))) {
+            productsByName.remove(new NameKey(previous.getName(), id));
+        }
+    }
+
+    /**
+     * Fetches the products whose name starts with the prefix, ordered by name and then by id, in
+     * {@code O(log n + page size)}.
+     * <p>
+     * Like the index of products by material, the name index only holds the newest name of every product. A product
+     * that was renamed or deleted after the snapshot was opened is therefore not found under the name it had at that
+     * point in time, every product that is found is read as it was in the snapshot.
+     *
+     * @param snapshot   the point in time the page is read at
+     * @param prefix     case-sensitive prefix of the names
+     * @param after      only products after this position are returned, if any
+     * @param first      maximum number of products to return
+     * @param projection the fields the products are read with, the name is always read
+     *
+     * @return a page of at most {@code first} products
+     */
+    public Page<Product> findProductsByNamePage(Snapshot snapshot,
+                                                String prefix,
+                                                Option<NameKey> after,
+                                                int first,
+                                                Projection projection) {
+        long start = System.nanoTime();
+        var event = StoreOperationEvent.started();
+        var lowest = NameKey.lowest(prefix);
+        NavigableSet<NameKey> candidates = switch (after) {
+            case Option.Some<NameKey> position when position.value()
+                                                            .compareTo(lowest) > 0 ->
+                    productsByName.tailSet(position.value(), false);
+            default -> productsByName.tailSet(lowest, true);
+        };
+
+        var withName = projection.withName();
+        var items = new ArrayList<Product>(Math.min(first, 64));
+        boolean hasNextPage = false;
+        for (NameKey position : candidates) {
+            if (!position.name()
+                         .startsWith(prefix)) {
+                break;
+            }
+            if (items.size() == first) {
+                hasNextPage = true;
+                break;
+            }
+            // the product might have had another name or not have existed at the timestamp
+            var product = products.get(position.id(), snapshot.timestamp(), withName);
+            if (product != null && product.getName()
+                                          .equals(position.name())) {
+                items.add(product);
+            }
+        }
+        record(Operation.FIND_PRODUCTS_BY_NAME, start, event, items.size());
+        return new Page<>(items, hasNextPage);
+    }
+
+    /**
+     * Fetches the products ordered by their id.
+     *
+     * @param snapshot the point in time the page is read at
+     * @param afterId  only products with an id after this one are returned, if any
+     * @param first    maximum number of products to return
+     *
+     * @return a page of at most {@code first} products
+     */
+    public Page<Product> findProductsPage(Snapshot snapshot, Option<UUID> afterId, int first) {
+        return findProductsPage(snapshot, afterId, first, Projection.ALL);
+    }
+
+    /**
+     * @param projection the fields the products are read with
+     *
+     * @see #findProductsPage(Snapshot, Option, int)
+     */
+    public Page<Product> findProductsPage(Snapshot snapshot, Option<UUID> afterId, int first, Projection projection) {
+        long start = System.nanoTime();
+        var event = StoreOperationEvent.started();
+        var page = products.page(snapshot.timestamp(), afterId, first, projection);
+        record(Operation.FIND_PRODUCTS_PAGE, start, event, page.items()
+                                                               .size());
+        return page;
+    }
+
+    public Result<Product, Failure> deleteProduct(UUID id) {
+        long start = System.nanoTime();
+        var event = StoreOperationEvent.started();
+        Result<Product, Failure> result;
+        try (var ignored = locks.lock(id)) {
+            result = Option.from(products.staged(id))
+                           .inspect(product -> write(new ProductsDeleted(List.of(product.getId()))))
+                           .okOr(missing("Product", id));
+        }
+        snapshots.reclaim();
+        record(Operation.DELETE_PRODUCT, start, event, 1);
+        return result;
+    }
+
+    /**
+     * Deletes all products at once or none of them if any of the ids does not reference a product.
+     *
+     * @param ids ids of the products that should be deleted, duplicates are ignored
+     *
+     * @return the deleted products or a failure listing the ids that do not reference a product
+     */
+    public Result<List<Product>, Failure> deleteProducts(List<UUID> ids) {
+        long start = System.nanoTime();
+        var event = StoreOperationEvent.started();
+        var distinctIds = new LinkedHashSet<>(ids);
+        Result<List<Product>, Failure> result;
+        try (var ignored = locks.lockAll(distinctIds)) {
+            var deleted = new ArrayList<Product>(distinctIds.size());
+            var nonExistentProductIds = new ArrayList<UUID>();
+            for (UUID id : distinctIds) {
+                Product product = products.staged(id);
+                if (product == null) {
+                    nonExistentProductIds.add(id);
+                } else {
+                    deleted.add(product);
+                }
+            }
 
-        if (!nonExistentProductIds.isEmpty()) {
-            return Result.err(new Failure("The IDs %s do not reference any products!".formatted(nonExistentProductIds),
-                                          FailureType.Missing));
+            if (nonExistentProductIds.isEmpty()) {
+                write(new ProductsDeleted(deleted.stream()
+                                                 .map(Product::getId)
+                                                 .toList()));
+                result = Result.ok(deleted);
+            } else {
+                result = Result.err(new Failure("The IDs %s do not reference any products!".formatted(
+                        nonExistentProductIds), FailureType.Missing));
+            }
+        }
+        snapshots.reclaim();
+        record(Operation.DELETE_PRODUCTS, start, event, distinctIds.size());
+        return result;
+    }
+
+    /**
+     * @param materialId id of a material
+     *
+     * @return the ids of all products that currently use the material
+     */
+    public Set<UUID> findProductIdsByMaterialId(UUID materialId) {
+        return Collections.unmodifiableSet(productIdsByMaterialId.getOrDefault(materialId, Set.of()));
+    }
+
+    /**
+     * @param materialId id of a material
+     *
+     * @return all products that currently use the material
+     */
+    public List<Product> findProductsByMaterialId(UUID materialId) {
+        return findProductIdsByMaterialId(materialId).stream()
+                                                     .map(products::latest)
+                                                     .filter(Objects::nonNull)
+                                                     .toList();
+    }
+
+    /**
+     * Moves the product in the material index. A product that keeps its material is not touched at all, otherwise the
+     * reference to the new material is added before the one to the previous material is removed. A concurrent
+     * {@link #deleteMaterial(UUID)}, which only holds the stripe of its material, therefore never sees a material
+     * without the references of the products that still use it.
+     *
+     * @param previous the previous version of the product, {@code null} if it is new
+     * @param current  the new version of the product, {@code null} if it is deleted
+     */
+    private void reindexMaterial(UUID productId, Product previous, Product current) {
+        if (previous != null && current != null && sameMaterial(previous, current)) {
+            return;
+        }
+        if (current != null) {
+            index(productId, current);
         }
-        return Result.ok(ids.stream()
-                            .map(products::remove)
-                            .toList());
+        if (previous != null) {
+            unindex(productId, previous);
+        }
+    }
+
+    private static boolean sameMaterial(Product product, Product other) {
+        return product.getMaterial()
+                      .getId()
+                      .equals(other.getMaterial()
+                                   .getId());
+    }
+
+    private void index(UUID productId, Product product) {
+        productIdsByMaterialId.compute(UUID.fromString(product.getMaterial()
+                                                              .getId()), (materialId, productIds) -> {
+            var ids = productIds == null ? ConcurrentHashMap.<UUID>newKeySet() : productIds;
+            ids.add(productId);
+            return ids;
+        });
+    }
+
+    private void unindex(UUID productId, Product product) {
+        productIdsByMaterialId.computeIfPresent(UUID.fromString(product.getMaterial()
+                                                                       .getId()), (materialId, productIds) -> {
+            productIds.remove(productId);
+            return productIds.isEmpty() ? null : productIds;
+        });
+    }
+
+    public Collection<Material> findAllMaterial(Snapshot snapshot) {
+        return findAllMaterial(snapshot, Projection.ALL);
     }
 
-    public Collection<Material> findAllMaterial() {
-        return materials.values();
+    public Collection<Material> findAllMaterial(Snapshot snapshot, Projection projection) {
+        long start = System.nanoTime();
+        var event = StoreOperationEvent.started();
+        var all = materials.values(snapshot.timestamp(), projection);
+        record(Operation.FIND_ALL_MATERIALS, start, event, all.size());
+        return all;
     }
 
-    public Option<Material> findMaterialById(String id) {
-        return Option.from(materials.get(id));
+    public Option<Material> findMaterialById(UUID id) {
+        return Option.from(materials.latest(id));
     }
 
+    /**
+     * Looks up all given materials at once.
+     *
+     * @param snapshot the point in time the materials are read at
+     * @param ids      ids of the materials
+     *
+     * @return the found materials by their id, ids that do not reference a material are missing
+     */
+    public Map<UUID, Material> findMaterialsByIds(Snapshot snapshot, Collection<UUID> ids) {
+        long start = System.nanoTime();
+        var event = StoreOperationEvent.started();
+        var found = new HashMap<UUID, Material>(ids.size() * 2);
+        for (UUID id : ids) {
+            var material = materials.get(id, snapshot.timestamp());
+            if (material != null) {
+                found.put(id, material);
+            }
+        }
+        record(Operation.FIND_MATERIALS_BY_IDS, start, event, ids.size());
+        return found;
+    }
+
+    /**
+     * @param id id of a material
+     *
+     * @return a material that only carries the id, as it is held by the products in the store
+     */
+    public static Material materialReference(UUID id) {
+        return Material.newBuilder()
+                       .id(id.toString())
+                       .build();
+    }
+
+    /**
+     * @param material the material to save, it gets the next version
+     *
+     * @return the saved material
+     */
     public Material saveMaterial(Material material) {
-        materials.put(material.getId(), material);
+        long start = System.nanoTime();
+        var event = StoreOperationEvent.started();
+        UUID id = UUID.fromString(material.getId());
+        try (var ignored = locks.lock(id)) {
+            material.setVersion(nextMaterialVersion(id));
+            write(new MaterialSaved(material));
+        }
+        snapshots.reclaim();
+        record(Operation.SAVE_MATERIAL, start, event, 1);
         return material;
     }
 
-    public Result<Material, Failure> deleteMaterial(String idToDelete) {
-        var productsThatReferenceTheMaterial = products.values()
-                                                       .stream()
-                                                       .filter(product -> Objects.equals(product.getMaterial()
-                                                                                                .getId(), idToDelete))
-                                                       .toList();
-        if (!products.isEmpty()) {
-            return Result.err(new Failure("The products with the id %s still reference this material!".formatted(
-                    productsThatReferenceTheMaterial.stream()
-                                                    .map(Product::getId)
-                                                    .toList()), FailureType.ReferencedByOther));
+    /**
+     * Updates a material optimistically, like {@link #updateProduct(VersionedUpdate)}.
+     *
+     * @param update the change of the material
+     *
+     * @return the updated material, or a failure if the material does not exist or does not have the expected version
+     */
+    public Result<Material, Failure> updateMaterial(VersionedUpdate<Material> update) {
+        long start = System.nanoTime();
+        var event = StoreOperationEvent.started();
+        var result = tryUpdateMaterial(update);
+        record(Operation.UPDATE_MATERIAL, start, event, 1);
+        return result;
+    }
+
+    private Result<Material, Failure> tryUpdateMaterial(VersionedUpdate<Material> update) {
+        UUID id = update.id();
+        for (int attempt = 0; attempt < MAX_UPDATE_ATTEMPTS; attempt++) {
+            Material current = materials.latest(id);
+            if (current == null) {
+                return Result.err(missing("Material", id));
+            }
+            long version = current.getVersion();
+            if (update.expectedVersion() instanceof OptionLong.Some expected && expected.value() != version) {
+                return Result.err(versionConflict("Material", id, expected.value(), version));
+            }
+
+            Material updated = update.change()
+                                     .apply(copy(current));
+            updated.setVersion(version + 1);
+            if (compareAndPutMaterial(id, version, updated)) {
+                snapshots.reclaim();
+                return Result.ok(updated);
+            }
         }
+        return Result.err(new Failure("The Material %s kept changing, gave up after %d attempts!".formatted(id,
+                                                                                                             MAX_UPDATE_ATTEMPTS),
+                                      FailureType.VersionConflict));
+    }
+
+    private boolean compareAndPutMaterial(UUID id, long expectedVersion, Material material) {
+        try (var ignored = locks.lock(id)) {
+            Material stored = materials.staged(id);
+            if (stored == null || stored.getVersion() != expectedVersion) {
+                return false;
+            }
+            write(new MaterialSaved(material));
+            return true;
+        }
+    }
 
-        return Option.from(materials.remove(idToDelete))
-                     .okOr(new Failure("A Material for the id %s does not exist!".formatted(idToDelete), FailureType.Missing));
+    private long nextMaterialVersion(UUID id) {
+        Material previous = materials.staged(id);
+        return previous == null ? 1 : previous.getVersion() + 1;
     }
 
-    public boolean domainObjectsExistsByIdAndClass(String id, Class<?> domainClass) {
+    private static Material copy(Material material) {
+        return Material.newBuilder()
+                       .id(material.getId())
+                       .version(material.getVersion())
+                       .name(material.getName())
+                       .description(material.getDescription())
+                       .createdOn(material.getCreatedOn())
+                       .updatedOn(material.getUpdatedOn())
+                       .build();
+    }
+
+    public Result<Material, Failure> deleteMaterial(UUID idToDelete) {
+        long start = System.nanoTime();
+        var event = StoreOperationEvent.started();
+        Result<Material, Failure> result;
+        try (var ignored = locks.lock(idToDelete)) {
+            var productsThatReferenceTheMaterial = findProductIdsByMaterialId(idToDelete);
+            if (productsThatReferenceTheMaterial.isEmpty()) {
+                result = Option.from(materials.staged(idToDelete))
+                               .inspect(material -> write(new MaterialDeleted(material.getId())))
+                               .okOr(missing("Material", idToDelete));
+            } else {
+                result = Result.err(new Failure("The products with the id %s still reference this material!".formatted(
+                        List.copyOf(productsThatReferenceTheMaterial)), FailureType.ReferencedByOther));
+            }
+        }
+        snapshots.reclaim();
+        record(Operation.DELETE_MATERIAL, start, event, 1);
+        return result;
+    }
+
+    private void putMaterial(Commit commit, Material material) {
+        materials.stage(commit, UUID.fromString(material.getId()), material);
+    }
+
+    private void removeMaterial(Commit commit, UUID id) {
+        materials.stage(commit, id, null);
+    }
+
+    /**
+     * Fetches the materials ordered by their id.
+     *
+     * @param snapshot the point in time the page is read at
+     * @param afterId  only materials with an id after this one are returned, if any
+     * @param first    maximum number of materials to return
+     *
+     * @return a page of at most {@code first} materials
+     */
+    public Page<Material> findMaterialsPage(Snapshot snapshot, Option<UUID> afterId, int first) {
+        return findMaterialsPage(snapshot, afterId, first, Projection.ALL);
+    }
+
+    /**
+     * @param projection the fields the materials are read with
+     *
+     * @see #findMaterialsPage(Snapshot, Option, int)
+     */
+    public Page<Material> findMaterialsPage(Snapshot snapshot, Option<UUID> afterId, int first, Projection projection) {
+        long start = System.nanoTime();
+        var event = StoreOperationEvent.started();
+        var page = materials.page(snapshot.timestamp(), afterId, first, projection);
+        record(Operation.FIND_MATERIALS_PAGE, start, event, page.items()
+                                                                .size());
+        return page;
+    }
+
+    /**
+     * Reports a finished operation to the {@link StoreMetrics} and to Java Flight Recorder.
+     */
+    private void record(Operation operation, long startNanos, StoreOperationEvent event, int entities) {
+        metrics.record(operation, startNanos, entities);
+        event.finish(operation.tag(), operation.entityType()
+                                               .getSimpleName(), entities);
+    }
+
+    private static Failure missing(String kind, UUID id) {
+        return new Failure("A %s for the id %s does not exist!".formatted(kind, id), FailureType.Missing);
+    }
+
+    private static Failure versionConflict(String kind, UUID id, long expectedVersion, long version) {
+        return new Failure("The %s %s has the version %d instead of the expected version %d!".formatted(kind,
+                                                                                                         id,
+                                                                                                         version,
+                                                                                                         expectedVersion),
+                           FailureType.VersionConflict);
+    }
+
+    public boolean domainObjectsExistsByIdAndClass(UUID id, Class<?> domainClass) {
+        return domainObjectsExistsByIdAndClass(Snapshot.LATEST, id, domainClass);
+    }
+
+    /**
+     * @return if the id references a domain object of the class that is visible in the snapshot
+     */
+    public boolean domainObjectsExistsByIdAndClass(Snapshot snapshot, UUID id, Class<?> domainClass) {
         return switch (domainClass) {
-            case Class<?> c when c == Product.class -> products.containsKey(id);
-            case Class<?> c when c == Material.class -> materials.containsKey(id);
+            case Class<?> c when c == Product.class -> products.containsKey(id, snapshot.timestamp());
+            case Class<?> c when c == Material.class -> materials.containsKey(id, snapshot.timestamp());
             default -> false;
         };
     }
 
-    public Result<GOOD, List<String>> domainObjectsExistByIdsAndClass(Collection<String> ids, Class<?> domainClass) {
-        List<String> nonExistingIDs = ids.stream()
-                                         .filter(id -> !domainObjectsExistsByIdAndClass(id, domainClass))
-                                         .toList();
+    /**
+     * An upper estimate of the number of domain objects of a class that is cheap enough to be asked on every request.
+     * Domain objects that were just deleted might still be counted.
+     *
+     * @return the estimated number of domain objects or {@code 0} for classes that are not stored
+     */
+    public int estimatedCountByClass(Class<?> domainClass) {
+        return switch (domainClass) {
+            case Class<?> c when c == Product.class -> products.estimatedSize();
+            case Class<?> c when c == Material.class -> materials.estimatedSize();
+            default -> 0;
+        };
+    }
+
+    public Result<GOOD, List<UUID>> domainObjectsExistByIdsAndClass(Collection<UUID> ids, Class<?> domainClass) {
+        return domainObjectsExistByIdsAndClass(Snapshot.LATEST, ids, domainClass);
+    }
+
+    /**
+     * @return the ids that do not reference a domain object of the class that is visible in the snapshot, if any
+     */
+    public Result<GOOD, List<UUID>> domainObjectsExistByIdsAndClass(Snapshot snapshot,
+                                                                    Collection<UUID> ids,
+                                                                    Class<?> domainClass) {
+        long start = System.nanoTime();
+        var event = StoreOperationEvent.started();
+        List<UUID> nonExistingIDs = ids.stream()
+                                       .filter(id -> !domainObjectsExistsByIdAndClass(snapshot, id, domainClass))
+                                       .toList();
+        metrics.record(Operation.CHECK_EXISTENCE, start, ids.size());
+        event.finish(Operation.CHECK_EXISTENCE.tag(), domainClass.getSimpleName(), ids.size());
         if (nonExistingIDs.isEmpty()) {
             return Result.good();
         }
@@ -0,0 +1,19 @@
+package the.oronco.graphqldynamicupdate.dfs;
+
+/**
+ * How the {@link Store} keeps its domain objects on the heap.
+ *
+ * @author the_oronco@posteo.net
+ * @since 17/10/2026
+ */
+public enum StoreLayout {
+    /**
+     * The domain objects themselves are stored and handed out on reads, which is the fastest to read.
+     */
+    OBJECTS,
+    /**
+     * Every version is stored as a single flat row of primitives and strings and only built into a domain object when
+     * it is read, which takes a fraction of the heap of {@link #OBJECTS} (see {@link CompactRows}).
+     */
+    COMPACT
+}
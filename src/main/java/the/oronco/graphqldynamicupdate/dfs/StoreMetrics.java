@@ -0,0 +1,66 @@
+package the.oronco.graphqldynamicupdate.dfs;
+
+import java.util.Locale;
+import the.oronco.graphqldynamicupdate.codegen.types.Material;
+import the.oronco.graphqldynamicupdate.codegen.types.Product;
+
+/**
+ * Receives the duration and size of every bulk and write operation of the {@link Store}. Point lookups by id are not
+ * reported, measuring them would cost more than the lookup itself.
+ *
+ * @author the_oronco@posteo.net
+ * @since 17/10/2026
+ */
+@FunctionalInterface
+public interface StoreMetrics {
+    StoreMetrics NONE = (operation, startNanos, entities) -> {};
+
+    enum Operation {
+        FIND_ALL_PRODUCTS(Product.class),
+        FIND_PRODUCTS_PAGE(Product.class),
+        FIND_PRODUCTS_BY_NAME(Product.class),
+        SAVE_PRODUCT(Product.class),
+        SAVE_PRODUCTS(Product.class),
+        UPDATE_PRODUCT(Product.class),
+        UPDATE_PRODUCTS(Product.class),
+        DELETE_PRODUCT(Product.class),
+        DELETE_PRODUCTS(Product.class),
+        FIND_ALL_MATERIALS(Material.class),
+        FIND_MATERIALS_PAGE(Material.class),
+        FIND_MATERIALS_BY_IDS(Material.class),
+        SAVE_MATERIAL(Material.class),
+        UPDATE_MATERIAL(Material.class),
+        DELETE_MATERIAL(Material.class),
+        /**
+         * Checks ids of any domain class, the class is only known to the caller.
+         */
+        CHECK_EXISTENCE(Object.class);
+
+        private final Class<?> entityType;
+
+        Operation(Class<?> entityType) {
+            this.entityType = entityType;
+        }
+
+        /**
+         * @return the domain class the operation reads or writes
+         */
+        public Class<?> entityType() {
+            return entityType;
+        }
+
+        /**
+         * @return the name of the operation as it is used in tags
+         */
+        public String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * @param operation  the operation that just finished
+     * @param startNanos {@link System#nanoTime()} when the operation started
+     * @param entities   number of domain objects the operation read or wrote
+     */
+    void record(Operation operation, long startNanos, int entities);
+}
@@ -0,0 +1,105 @@
+package the.oronco.graphqldynamicupdate.dfs;
+
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantLock;
+import the.oronco.graphqldynamicupdate.dfs.adt.Option;
+
+/**
+ * A fixed set of {@link ReentrantLock}s that keys are hashed onto. Writers only contend when their keys land on the same
+ * stripe, and multi-key operations acquire every stripe they need in ascending stripe order so that they can never
+ * deadlock with each other.
+ *
+ * @author the_oronco@posteo.net
+ * @since 17/10/2026
+ */
+final class StripedLock {
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    StripedLock(int minimumStripes) {
+        int size = Integer.highestOneBit(Math.max(1, minimumStripes - 1)) << 1;
+        this.stripes = new ReentrantLock[size];
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    StripedLock() {
+        this(Runtime.getRuntime()
+                    .availableProcessors() * 8);
+    }
+
+    /**
+     * Locks the stripe of a single key.
+     *
+     * @param key the key that is about to be written
+     *
+     * @return a handle that releases the stripe when closed
+     */
+    Held lock(Object key) {
+        ReentrantLock stripe = stripes[indexOf(key)];
+        stripe.lock();
+        return stripe::unlock;
+    }
+
+    /**
+     * Locks the stripe of a single key if it is free, for work that must not wait on writers.
+     *
+     * @param key the key that is about to be written
+     *
+     * @return a handle that releases the stripe when closed, or {@code None} if the stripe is held by another thread
+     */
+    Option<Held> tryLock(Object key) {
+        ReentrantLock stripe = stripes[indexOf(key)];
+        if (!stripe.tryLock()) {
+            return Option.none();
+        }
+        return Option.some(stripe::unlock);
+    }
+
+    /**
+     * Locks the stripes of all given keys at once. Stripes are deduplicated and acquired in ascending order.
+     *
+     * @param keys the keys that are about to be written together
+     *
+     * @return a handle that releases all acquired stripes when closed
+     */
+    Held lockAll(Collection<?> keys) {
+        int[] indices = keys.stream()
+                            .mapToInt(this::indexOf)
+                            .distinct()
+                            .sorted()
+                            .toArray();
+        for (int index : indices) {
+            stripes[index].lock();
+        }
+        return () -> {
+            for (int i = indices.length - 1; i >= 0; i--) {
+                stripes[indices[i]].unlock();
+            }
+        };
+    }
+
+    /**
+     * Waits until every stripe that is held right now has been released, without blocking writers that come later for
+     * longer than it takes to pass their stripe.
+     */
+    void awaitReleased() {
+        for (ReentrantLock stripe : stripes) {
+            stripe.lock();
+            stripe.unlock();
+        }
+    }
+
+    private int indexOf(Object key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    @FunctionalInterface
+    interface Held extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,247 @@
+package the.oronco.graphqldynamicupdate.dfs;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Concurrent map from {@link UUID}s to values that stores the keys as their two {@code long} halves in primitive arrays
+ * with open addressing (linear probing), instead of as boxed {@code String} or {@code UUID} keys in hash map nodes.
+ * <p>
+ * The table is split into segments that are selected by the upper bits of the hash. Each segment is guarded by a
+ * {@link StampedLock}: writers take its write lock, readers probe optimistically without locking and only fall back to
+ * the read lock if a writer interfered.
+ *
+ * @param <V> type of the values
+ *
+ * @author the_oronco@posteo.net
+ * @since 17/10/2026
+ */
+final class UuidIndex<V> {
+    private static final int SEGMENT_BITS = 6;
+    private static final int INITIAL_SEGMENT_CAPACITY = 16;
+
+    private final Segment[] segments = new Segment[1 << SEGMENT_BITS];
+
+    UuidIndex() {
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = new Segment(INITIAL_SEGMENT_CAPACITY);
+        }
+    }
+
+    V get(UUID key) {
+        return get(key.getMostSignificantBits(), key.getLeastSignificantBits());
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(long msb, long lsb) {
+        int hash = hash(msb, lsb);
+        Segment segment = segmentFor(hash);
+        long stamp = segment.tryOptimisticRead();
+        if (stamp != 0) {
+            Object value = segment.table.find(msb, lsb, hash);
+            if (segment.validate(stamp)) {
+                return (V) value;
+            }
+        }
+        stamp = segment.readLock();
+        try {
+            return (V) segment.table.find(msb, lsb, hash);
+        } finally {
+            segment.unlockRead(stamp);
+        }
+    }
+
+    boolean containsKey(UUID key) {
+        return get(key) != null;
+    }
+
+    /**
+     * @return the previous value of the key or {@code null} if there was none
+     */
+    @SuppressWarnings("unchecked")
+    V put(UUID key, V value) {
+        long msb = key.getMostSignificantBits();
+        long lsb = key.getLeastSignificantBits();
+        int hash = hash(msb, lsb);
+        Segment segment = segmentFor(hash);
+        long stamp = segment.writeLock();
+        try {
+            return (V) segment.put(msb, lsb, hash, value);
+        } finally {
+            segment.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * @return the removed value or {@code null} if the key was not present
+     */
+    @SuppressWarnings("unchecked")
+    V remove(UUID key) {
+        long msb = key.getMostSignificantBits();
+        long lsb = key.getLeastSignificantBits();
+        int hash = hash(msb, lsb);
+        Segment segment = segmentFor(hash);
+        long stamp = segment.writeLock();
+        try {
+            return (V) segment.remove(msb, lsb, hash);
+        } finally {
+            segment.unlockWrite(stamp);
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            long stamp = segment.readLock();
+            try {
+                size += segment.size;
+            } finally {
+                segment.unlockRead(stamp);
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @return a copy of all values; each segment is copied atomically but not all segments at the same time
+     */
+    @SuppressWarnings("unchecked")
+    List<V> values() {
+        var values = new ArrayList<V>();
+        for (Segment segment : segments) {
+            long stamp = segment.readLock();
+            try {
+                for (Object value : segment.table.values) {
+                    if (value != null) {
+                        values.add((V) value);
+                    }
+                }
+            } finally {
+                segment.unlockRead(stamp);
+            }
+        }
+        return values;
+    }
+
+    private Segment segmentFor(int hash) {
+        return segments[hash >>> (Integer.SIZE - SEGMENT_BITS)];
+    }
+
+    private static int hash(long msb, long lsb) {
+        long h = msb ^ lsb;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    /**
+     * The arrays of a segment, replaced as a whole on resize so that an optimistic reader always probes arrays of the
+     * same length.
+     */
+    private static final class Table {
+        final long[] msbs;
+        final long[] lsbs;
+        final Object[] values;
+
+        Table(int capacity) {
+            msbs = new long[capacity];
+            lsbs = new long[capacity];
+            values = new Object[capacity];
+        }
+
+        Object find(long msb, long lsb, int hash) {
+            int mask = values.length - 1;
+            for (int i = hash & mask, probes = 0; probes <= mask; i = (i + 1) & mask, probes++) {
+                Object value = values[i];
+                if (value == null) {
+                    return null;
+                }
+                if (msbs[i] == msb && lsbs[i] == lsb) {
+                    return value;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final class Segment extends StampedLock {
+        Table table;
+        int size;
+
+        Segment(int capacity) {
+            table = new Table(capacity);
+        }
+
+        Object put(long msb, long lsb, int hash, Object value) {
+            if ((size + 1) * 4 > table.values.length * 3) {
+                resize();
+            }
+            Table t = table;
+            int mask = t.values.length - 1;
+            int i = hash & mask;
+            while (t.values[i] != null) {
+                if (t.msbs[i] == msb && t.lsbs[i] == lsb) {
+                    Object previous = t.values[i];
+                    t.values[i] = value;
+                    return previous;
+                }
+                i = (i + 1) & mask;
+            }
+            t.msbs[i] = msb;
+            t.lsbs[i] = lsb;
+            t.values[i] = value;
+            size++;
+            return null;
+        }
+
+        Object remove(long msb, long lsb, int hash) {
+            Table t = table;
+            int mask = t.values.length - 1;
+            int i = hash & mask;
+            while (t.values[i] != null && !(t.msbs[i] == msb && t.lsbs[i] == lsb)) {
+                i = (i + 1) & mask;
+            }
+            Object removed = t.values[i];
+            if (removed == null) {
+                return null;
+            }
+
+            // shift following entries back into the hole as long as that does not move them before their home slot
+            int hole = i;
+            for (int j = (i + 1) & mask; t.values[j] != null; j = (j + 1) & mask) {
+                int home = hash(t.msbs[j], t.lsbs[j]) & mask;
+                boolean homeBetweenHoleAndJ = hole <= j ? hole < home && home <= j : hole < home || home <= j;
+                if (!homeBetweenHoleAndJ) {
+                    t.msbs[hole] = t.msbs[j];
+                    t.lsbs[hole] = t.lsbs[j];
+                    t.values[hole] = t.values[j];
+                    hole = j;
+                }
+            }
+            t.values[hole] = null;
+            size--;
+            return removed;
+        }
+
+        private void resize() {
+            Table old = table;
+            Table resized = new Table(old.values.length * 2);
+            int mask = resized.values.length - 1;
+            for (int i = 0; i < old.values.length; i++) {
+                if (old.values[i] != null) {
+                    int j = hash(old.msbs[i], old.lsbs[i]) & mask;
+                    while (resized.values[j] != null) {
+                        j = (j + 1) & mask;
+                    }
+                    resized.msbs[j] = old.msbs[i];
+                    resized.lsbs[j] = old.lsbs[i];
+                    resized.values[j] = old.values[i];
+                }
+            }
+            table = resized;
+        }
+    }
+}
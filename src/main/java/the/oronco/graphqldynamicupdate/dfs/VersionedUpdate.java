@@ -0,0 +1,20 @@
+package the.oronco.graphqldynamicupdate.dfs;
+
+import java.util.UUID;
+import java.util.function.UnaryOperator;
+import the.oronco.graphqldynamicupdate.dfs.adt.OptionLong;
+
+/**
+ * A change of a single domain object that the {@link Store} applies optimistically.
+ *
+ * @param id              id of the changed domain object
+ * @param expectedVersion the version the writer based its change on; if it is given and the domain object has another
+ *                        version the change fails, otherwise it is retried on the newer version
+ * @param change          changes a copy of the current domain object in place or returns a changed copy; it may be
+ *                        called more than once and must not change the id or the references of the domain object
+ * @param <T>             type of the changed domain object
+ *
+ * @author the_oronco@posteo.net
+ * @since 17/10/2026
+ */
+public record VersionedUpdate<T>(UUID id, OptionLong expectedVersion, UnaryOperator<T> change) {}
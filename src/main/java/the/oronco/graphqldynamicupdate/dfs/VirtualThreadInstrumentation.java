@@ -0,0 +1,60 @@
+package the.oronco.graphqldynamicupdate.dfs;
+
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Runs the data fetchers of the top level fields of every operation on an executor of virtual threads. A data fetcher
+ * that blocks on the {@link Store} then only parks its virtual thread, and the top level fields of a query are fetched
+ * concurrently instead of one after the other. Mutations stay serial, as graphql-java waits for each top level field
+ * before it starts the next one.
+ * <p>
+ * Nested fields are left on the thread that completed their parent: they are either trivial or resolved through data
+ * loaders, which are dispatched per level and would never see loads that are issued later from another thread.
+ *
+ * @author the_oronco@posteo.net
+ * @since 17/10/2026
+ */
+@RequiredArgsConstructor
+public class VirtualThreadInstrumentation extends SimplePerformantInstrumentation {
+    private final Executor executor;
+
+    @Override
+    public DataFetcher<?> instrumentDataFetcher(DataFetcher<?> dataFetcher,
+                                                InstrumentationFieldFetchParameters parameters,
+                                                InstrumentationState state) {
+        if (parameters.getExecutionStepInfo()
+                      .getPath()
+                      .getLevel() != 1) {
+            return dataFetcher;
+        }
+        return environment -> CompletableFuture.supplyAsync(() -> fetch(dataFetcher, environment), executor)
+                                               .thenCompose(VirtualThreadInstrumentation::flatten);
+    }
+
+    private static Object fetch(DataFetcher<?> dataFetcher, DataFetchingEnvironment environment) {
+        try {
+            return dataFetcher.get(environment);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    private static CompletionStage<Object> flatten(Object value) {
+        if (value instanceof CompletionStage<?> stage) {
+            //noinspection unchecked
+            return (CompletionStage<Object>) stage;
+        }
+        return CompletableFuture.completedFuture(value);
+    }
+}
@@ -88,12 +88,16 @@ public sealed interface Option<T>
      * Creates a {@link Stream} from the {@code Option<T>} that contains the value of
      * {@code Some<T>} and is empty otherwise.
      *
+     * <p>
+     * Both cases build a new stream pipeline, even the empty stream of {@code None<T>}. Use {@link Option#iterator()}
+     * where allocations matter.
+     *
      * @return the stream that contains the value of {@code Some<T>} and is empty otherwise
      */
     default @NotNull Stream<T> stream() {
         return switch (this) {
             case Some<T> some -> Stream.of(some.value);
-            case None<T> ignored -> Stream.of();
+            case None<T> ignored -> Stream.empty();
         };
     }
 
@@ -318,16 +322,14 @@ public sealed interface Option<T>
      */
     default @NotNull Iterator<T> iter() {
         return switch (this) {
-            case Some<T> some -> Stream.of(some.value)
-                                       .iterator();
+            case Some<T> some -> new SingleIterator<>(some.value);
             case None<T> ignored -> Collections.emptyIterator();
         };
     }
 
     default @NotNull Iterator<T> iterator() {
         return switch (this) {
-            case Some<T> some -> Stream.of(some.value)
-                                       .iterator();
+            case Some<T> some -> new SingleIterator<>(some.value);
             case None<T> ignored -> Collections.emptyIterator();
         };
     }
@@ -390,10 +392,8 @@ public sealed interface Option<T>
      * {@code Predicate<? super T>} or {@code None<T>}
      */
     default @NotNull Option<T> filter(@NotNull @NonNull Predicate<? super @NotNull T> predicate) {
-        if (this instanceof Some<T> some) {
-            if (predicate.test(some.value)) {
-                return some(some.value);
-            }
+        if (this instanceof Some<T> some && predicate.test(some.value)) {
+            return some;
         }
         return none();
     }
@@ -412,7 +412,7 @@ public sealed interface Option<T>
      */
     default @NotNull Option<T> or(@NotNull @NonNull Option<T> other) {
         return switch (this) {
-            case Some<T> some -> some(some.value);
+            case Some<T> some -> some;
             case None<T> ignored -> other;
         };
     }
@@ -434,7 +434,7 @@ public sealed interface Option<T>
      */
     default @NotNull Option<T> orNullable(@NotNull @NonNull T other) {
         return switch (this) {
-            case Some<T> some -> some(some.value);
+            case Some<T> some -> some;
             case None<T> ignored -> Option.from(other);
         };
     }
@@ -451,7 +451,7 @@ public sealed interface Option<T>
      */
     default <S extends T> @NotNull Option<? extends T> orElse(@NotNull @NonNull Supplier<@NotNull Option<S>> other) {
         return switch (this) {
-            case Some<T> some -> some(some.value);
+            case Some<T> some -> some;
             case None<T> ignored -> other.get();
         };
     }
@@ -468,7 +468,7 @@ public sealed interface Option<T>
      */
     default <S extends T> @NotNull Option<T> orNullableElse(@NotNull @NonNull Supplier<@NotNull S> other) {
         return switch (this) {
-            case Some<T> some -> some(some.value);
+            case Some<T> some -> some;
             case None<T> ignored -> Option.from(other.get());
         };
     }
@@ -482,10 +482,10 @@ public sealed interface Option<T>
      * @return an {Option<T>} according to the above condition
      */
     default @NotNull Option<T> xOr(@NotNull @NonNull Option<T> other) {
-        if (this instanceof Some<T> some && !(other instanceof Some<T>)) {
-            return some(some.value);
-        } else if (!(this instanceof Some<T>) && other instanceof Some<T> some) {
-            return some(some.value);
+        if (this instanceof Some<T> && !(other instanceof Some<T>)) {
+            return this;
+        } else if (!(this instanceof Some<T>) && other instanceof Some<T>) {
+            return other;
         } else {
             return none();
         }
@@ -515,8 +515,7 @@ public sealed interface Option<T>
 
     static <T> @NotNull Option<T> optionFrom(@SuppressWarnings("OptionalUsedAsFieldOrParameterType")
                                              @NotNull @NonNull Optional<T> optional) {
-        return optional.map(Option::some)
-                       .orElseGet(Option::none);
+        return optional.isPresent() ? some(optional.get()) : none();
     }
 
     static <T> @NotNull Option<T> from(T value) {
@@ -533,7 +532,6 @@ public sealed interface Option<T>
         return new Some<>(value);
     }
 
-    // TODO think of the potential memory problems that multiple NONE-Objects may cause
     @SuppressWarnings("unchecked")
     static <T> @NotNull Option<T> none() {
         return (Option<T>) NONE;
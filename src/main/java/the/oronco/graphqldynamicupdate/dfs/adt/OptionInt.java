@@ -0,0 +1,220 @@
+package the.oronco.graphqldynamicupdate.dfs.adt;
+
+
+import java.util.NoSuchElementException;
+import java.util.OptionalInt;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.function.IntSupplier;
+import java.util.function.IntUnaryOperator;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.NonNull;
+import lombok.ToString;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * {@link Option} of a primitive {@code int} that does not box its value. It is to
+ * {@link Option} what {@link OptionalInt} is to {@link java.util.Optional}; the methods behave
+ * like their equivalents on {@link Option}.
+ *
+ * @author the_oronco@posteo.net
+ * @since 17/10/2026
+ */
+public sealed interface OptionInt
+        extends Rusty<OptionalInt> {
+    None NONE = new None();
+
+    @ToString
+    @EqualsAndHashCode
+    @NoArgsConstructor(access = AccessLevel.PRIVATE)
+    final class None implements OptionInt {}
+
+    @ToString
+    @EqualsAndHashCode
+    final class Some implements OptionInt {
+        private final int value;
+
+        private Some(int value) {
+            this.value = value;
+        }
+
+        public int value() {
+            return value;
+        }
+    }
+
+    default boolean isSome() {
+        return this instanceof Some;
+    }
+
+    default boolean isNone() {
+        return this instanceof None;
+    }
+
+    /**
+     * @param predicate condition the value should conform to
+     *
+     * @return {@code true} if the option is {@code Some} and its value conforms to the predicate
+     */
+    default boolean isSomeAnd(@NotNull @NonNull IntPredicate predicate) {
+        return switch (this) {
+            case Some some -> predicate.test(some.value);
+            case None ignored -> false;
+        };
+    }
+
+    /**
+     * @return a stream of the value or an empty stream if the option is {@code None}
+     */
+    default @NotNull IntStream stream() {
+        return switch (this) {
+            case Some some -> IntStream.of(some.value);
+            case None ignored -> IntStream.empty();
+        };
+    }
+
+    /**
+     * @param errorMessage the error message that is thrown when the option is {@code None}
+     *
+     * @return the value if the option is {@code Some}
+     *
+     * @throws NoSuchElementException with the given message when the option is {@code None}
+     */
+    default int expect(String errorMessage) throws @NotNull NoSuchElementException {
+        return switch (this) {
+            case Some some -> some.value;
+            case None ignored -> throw new NoSuchElementException(errorMessage);
+        };
+    }
+
+    /**
+     * @param exceptionSupplier supplier of the exception that is thrown when the option is
+     *                          {@code None}
+     *
+     * @return the value if the option is {@code Some}
+     *
+     * @throws E the supplied exception when the option is {@code None}
+     */
+    default <E extends Exception> int expectElse(@NotNull @NonNull Supplier<@NotNull E> exceptionSupplier) throws
+                                                                                                          @NotNull E {
+        return switch (this) {
+            case Some some -> some.value;
+            case None ignored -> throw exceptionSupplier.get();
+        };
+    }
+
+    /**
+     * @return the value if the option is {@code Some}
+     *
+     * @throws NoSuchElementException when the option is {@code None}
+     */
+    default int unwrap() throws @NotNull NoSuchElementException {
+        return switch (this) {
+            case Some some -> some.value;
+            case None ignored -> throw new NoSuchElementException("OptionInt was unwrapped but it had no value!");
+        };
+    }
+
+    default int unwrapOr(int defaultValue) {
+        return switch (this) {
+            case Some some -> some.value;
+            case None ignored -> defaultValue;
+        };
+    }
+
+    default int unwrapOrElse(@NotNull @NonNull IntSupplier supplier) {
+        return switch (this) {
+            case Some some -> some.value;
+            case None ignored -> supplier.getAsInt();
+        };
+    }
+
+    default @NotNull OptionInt map(@NotNull @NonNull IntUnaryOperator f) {
+        return switch (this) {
+            case Some some -> some(f.applyAsInt(some.value));
+            case None ignored -> none();
+        };
+    }
+
+    /**
+     * Maps the value to an object, like {@link IntStream#mapToObj(IntFunction)}.
+     *
+     * @param f   function that converts the value
+     * @param <R> type the value is converted to
+     *
+     * @return an {@code Option<R>} with the converted value or {@code None}
+     */
+    default <R> @NotNull Option<R> mapToObj(@NotNull @NonNull IntFunction<? extends @NotNull R> f) {
+        return switch (this) {
+            case Some some -> Option.some(f.apply(some.value));
+            case None ignored -> Option.none();
+        };
+    }
+
+    default <R> R mapOr(R defaultValue, @NotNull @NonNull IntFunction<? extends R> f) {
+        return switch (this) {
+            case Some some -> f.apply(some.value);
+            case None ignored -> defaultValue;
+        };
+    }
+
+    default @NotNull OptionInt inspect(@NotNull @NonNull IntConsumer consumer) {
+        if (this instanceof Some some) {
+            consumer.accept(some.value);
+        }
+        return this;
+    }
+
+    default @NotNull OptionInt filter(@NotNull @NonNull IntPredicate predicate) {
+        if (this instanceof Some some && predicate.test(some.value)) {
+            return some;
+        }
+        return none();
+    }
+
+    default @NotNull OptionInt or(@NotNull @NonNull OptionInt other) {
+        return switch (this) {
+            case Some some -> some;
+            case None ignored -> other;
+        };
+    }
+
+    /**
+     * @return the option with its value boxed, for APIs that only take an {@link Option}
+     */
+    default @NotNull Option<Integer> boxed() {
+        return switch (this) {
+            case Some some -> Option.some(some.value);
+            case None ignored -> Option.none();
+        };
+    }
+
+    @Override
+    default @NotNull OptionalInt j() {
+        return toOptional();
+    }
+
+    default @NotNull OptionalInt toOptional() {
+        return switch (this) {
+            case Some some -> OptionalInt.of(some.value);
+            case None ignored -> OptionalInt.empty();
+        };
+    }
+
+    static @NotNull OptionInt optionFrom(@NotNull @NonNull OptionalInt optional) {
+        return optional.isPresent() ? some(optional.getAsInt()) : none();
+    }
+
+    static @NotNull OptionInt some(int value) {
+        return new Some(value);
+    }
+
+    static @NotNull OptionInt none() {
+        return NONE;
+    }
+}
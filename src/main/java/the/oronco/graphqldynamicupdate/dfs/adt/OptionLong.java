@@ -0,0 +1,229 @@
+package the.oronco.graphqldynamicupdate.dfs.adt;
+
+
+import java.util.NoSuchElementException;
+import java.util.OptionalLong;
+import java.util.function.LongConsumer;
+import java.util.function.LongFunction;
+import java.util.function.LongPredicate;
+import java.util.function.LongSupplier;
+import java.util.function.LongUnaryOperator;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.NonNull;
+import lombok.ToString;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * {@link Option} of a primitive {@code long} that does not box its value. It is to
+ * {@link Option} what {@link OptionalLong} is to {@link java.util.Optional}; the methods behave
+ * like their equivalents on {@link Option}.
+ *
+ * @author the_oronco@posteo.net
+ * @since 17/10/2026
+ */
+public sealed interface OptionLong
+        extends Rusty<OptionalLong> {
+    None NONE = new None();
+
+    @ToString
+    @EqualsAndHashCode
+    @NoArgsConstructor(access = AccessLevel.PRIVATE)
+    final class None implements OptionLong {}
+
+    @ToString
+    @EqualsAndHashCode
+    final class Some implements OptionLong {
+        private final long value;
+
+        private Some(long value) {
+            this.value = value;
+        }
+
+        public long value() {
+            return value;
+        }
+    }
+
+    default boolean isSome() {
+        return this instanceof Some;
+    }
+
+    default boolean isNone() {
+        return this instanceof None;
+    }
+
+    /**
+     * @param predicate condition the value should conform to
+     *
+     * @return {@code true} if the option is {@code Some} and its value conforms to the predicate
+     */
+    default boolean isSomeAnd(@NotNull @NonNull LongPredicate predicate) {
+        return switch (this) {
+            case Some some -> predicate.test(some.value);
+            case None ignored -> false;
+        };
+    }
+
+    /**
+     * @return a stream of the value or an empty stream if the option is {@code None}
+     */
+    default @NotNull LongStream stream() {
+        return switch (this) {
+            case Some some -> LongStream.of(some.value);
+            case None ignored -> LongStream.empty();
+        };
+    }
+
+    /**
+     * @param errorMessage the error message that is thrown when the option is {@code None}
+     *
+     * @return the value if the option is {@code Some}
+     *
+     * @throws NoSuchElementException with the given message when the option is {@code None}
+     */
+    default long expect(String errorMessage) throws @NotNull NoSuchElementException {
+        return switch (this) {
+            case Some some -> some.value;
+            case None ignored -> throw new NoSuchElementException(errorMessage);
+        };
+    }
+
+    /**
+     * @param exceptionSupplier supplier of the exception that is thrown when the option is
+     *                          {@code None}
+     *
+     * @return the value if the option is {@code Some}
+     *
+     * @throws E the supplied exception when the option is {@code None}
+     */
+    default <E extends Exception> long expectElse(@NotNull @NonNull Supplier<@NotNull E> exceptionSupplier) throws
+                                                                                                           @NotNull E {
+        return switch (this) {
+            case Some some -> some.value;
+            case None ignored -> throw exceptionSupplier.get();
+        };
+    }
+
+    /**
+     * @return the value if the option is {@code Some}
+     *
+     * @throws NoSuchElementException when the option is {@code None}
+     */
+    default long unwrap() throws @NotNull NoSuchElementException {
+        return switch (this) {
+            case Some some -> some.value;
+            case None ignored -> throw new NoSuchElementException("OptionLong was unwrapped but it had no value!");
+        };
+    }
+
+    default long unwrapOr(long defaultValue) {
+        return switch (this) {
+            case Some some -> some.value;
+            case None ignored -> defaultValue;
+        };
+    }
+
+    default long unwrapOrElse(@NotNull @NonNull LongSupplier supplier) {
+        return switch (this) {
+            case Some some -> some.value;
+            case None ignored -> supplier.getAsLong();
+        };
+    }
+
+    default @NotNull OptionLong map(@NotNull @NonNull LongUnaryOperator f) {
+        return switch (this) {
+            case Some some -> some(f.applyAsLong(some.value));
+            case None ignored -> none();
+        };
+    }
+
+    /**
+     * Maps the value to an object, like {@link LongStream#mapToObj(LongFunction)}.
+     *
+     * @param f   function that converts the value
+     * @param <R> type the value is converted to
+     *
+     * @return an {@code Option<R>} with the converted value or {@code None}
+     */
+    default <R> @NotNull Option<R> mapToObj(@NotNull @NonNull LongFunction<? extends @NotNull R> f) {
+        return switch (this) {
+            case Some some -> Option.some(f.apply(some.value));
+            case None ignored -> Option.none();
+        };
+    }
+
+    default <R> R mapOr(R defaultValue, @NotNull @NonNull LongFunction<? extends R> f) {
+        return switch (this) {
+            case Some some -> f.apply(some.value);
+            case None ignored -> defaultValue;
+        };
+    }
+
+    default @NotNull OptionLong inspect(@NotNull @NonNull LongConsumer consumer) {
+        if (this instanceof Some some) {
+            consumer.accept(some.value);
+        }
+        return this;
+    }
+
+    default @NotNull OptionLong filter(@NotNull @NonNull LongPredicate predicate) {
+        if (this instanceof Some some && predicate.test(some.value)) {
+            return some;
+        }
+        return none();
+    }
+
+    default @NotNull OptionLong or(@NotNull @NonNull OptionLong other) {
+        return switch (this) {
+            case Some some -> some;
+            case None ignored -> other;
+        };
+    }
+
+    /**
+     * @return the option with its value boxed, for APIs that only take an {@link Option}
+     */
+    default @NotNull Option<Long> boxed() {
+        return switch (this) {
+            case Some some -> Option.some(some.value);
+            case None ignored -> Option.none();
+        };
+    }
+
+    @Override
+    default @NotNull OptionalLong j() {
+        return toOptional();
+    }
+
+    default @NotNull OptionalLong toOptional() {
+        return switch (this) {
+            case Some some -> OptionalLong.of(some.value);
+            case None ignored -> OptionalLong.empty();
+        };
+    }
+
+    static @NotNull OptionLong optionFrom(@NotNull @NonNull OptionalLong optional) {
+        return optional.isPresent() ? some(optional.getAsLong()) : none();
+    }
+
+    /**
+     * @param value a boxed value that may be {@code null}
+     *
+     * @return the unboxed value or {@code None} if it is {@code null}
+     */
+    static @NotNull OptionLong from(Long value) {
+        return value == null ? none() : some(value);
+    }
+
+    static @NotNull OptionLong some(long value) {
+        return new Some(value);
+    }
+
+    static @NotNull OptionLong none() {
+        return NONE;
+    }
+}
@@ -8,7 +8,6 @@ import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
-import java.util.stream.Stream;
 import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
@@ -40,6 +39,16 @@ public sealed interface Result<T, E>
         public @NotNull T result() {
             return result;
         }
+
+        /**
+         * A successful result does not hold an error, so it is a success of any error type.
+         *
+         * @return {@code this} as a success with the error type {@code F}
+         */
+        @SuppressWarnings("unchecked")
+        public <F> Ok<T, F> as() {
+            return (Ok<T, F>) this;
+        }
     }
 
     @ToString
@@ -55,8 +64,14 @@ public sealed interface Result<T, E>
             return error;
         }
 
-        public <R> Result<R, E> as() {
-            return Result.err(this.error);
+        /**
+         * An error does not hold a successful value, so it is an error of any successful type.
+         *
+         * @return {@code this} as an error of the successful type {@code R}
+         */
+        @SuppressWarnings("unchecked")
+        public <R> Err<R, E> as() {
+            return (Err<R, E>) this;
         }
     }
 
@@ -140,7 +155,7 @@ public sealed interface Result<T, E>
     default <U> @NotNull Result<U, E> map(@NotNull @NonNull Function<? super @NotNull T, ? extends @NotNull U> f) {
         return switch (this) {
             case Ok<T, E> ok -> ok(f.apply(ok.result));
-            case Err<T, E> err -> err(err.error);
+            case Err<T, E> err -> err.as();
         };
     }
 
@@ -200,7 +215,7 @@ public sealed interface Result<T, E>
      */
     default <U> Result<T, U> mapErr(@NotNull @NonNull Function<? super @NotNull E, ? extends @NotNull U> f) {
         return switch (this) {
-            case Ok<T, E> ok -> ok(ok.result);
+            case Ok<T, E> ok -> ok.as();
             case Err<T, E> err -> err(f.apply(err.error));
         };
     }
@@ -244,29 +259,13 @@ public sealed interface Result<T, E>
 
     default @NotNull Iterator<T> iterator() {
         return switch (this) {
-            case Ok<T, E> ok -> Stream.of(ok.result)
-                                      .iterator();
+            case Ok<T, E> ok -> new SingleIterator<>(ok.result);
             case Err<T, E> ignored -> Collections.emptyIterator();
         };
     }
 
-    // TODO use custom iterator
     default @NotNull Iterator<T> iter() {
-        return switch (this) {
-            case Ok<T, E> ok -> Stream.of(ok.result)
-                                      .iterator();
-            case Err<T, E> ignored -> new Iterator<>() {
-                @Override
-                public boolean hasNext() {
-                    return false;
-                }
-
-                @Override
-                public T next() {
-                    return null;
-                }
-            };
-        };
+        return iterator();
     }
 
     /**
@@ -475,7 +474,7 @@ public sealed interface Result<T, E>
     default <U> @NotNull Result<U, E> and(@NotNull @NonNull Result<U, E> other) {
         return switch (this) {
             case Ok<T, E> ignored -> other;
-            case Err<T, E> err -> err(err.error);
+            case Err<T, E> err -> err.as();
         };
     }
 
@@ -494,7 +493,7 @@ public sealed interface Result<T, E>
     default <U> @NotNull Result<? extends U, ? extends E> andThen(@NotNull @NonNull Supplier<@NotNull Result<? extends U, ? extends E>> f) {
         return switch (this) {
             case Ok<T, E> ignored -> f.get();
-            case Err<T, E> err -> err(err.error);
+            case Err<T, E> err -> err.as();
         };
     }
 
@@ -513,7 +512,7 @@ public sealed interface Result<T, E>
      */
     default <F> @NotNull Result<T, F> or(@NotNull @NonNull Result<T, F> other) {
         return switch (this) {
-            case Ok<T, E> ok -> ok(ok.result);
+            case Ok<T, E> ok -> ok.as();
             case Err<T, E> ignored -> other;
         };
     }
@@ -532,7 +531,7 @@ public sealed interface Result<T, E>
      */
     default <F> @NotNull Result<? extends T, ? extends F> orThen(@NotNull @NonNull Supplier<Result<? extends T, ? extends F>> f) {
         return switch (this) {
-            case Ok<T, E> ok -> ok(ok.result);
+            case Ok<T, E> ok -> ok.as();
             case Err<T, E> ignored -> f.get();
         };
     }
@@ -552,22 +551,28 @@ public sealed interface Result<T, E>
     static <T, E> @NotNull Ok<T, E> ok(@NotNull @NonNull T result) {
         return new Ok<>(result);
     }
+
+    @SuppressWarnings("unchecked")
     static <E> @NotNull Ok<GOOD, E> good() {
-        return new Ok<>(Result.GOOD);
+        return (Ok<GOOD, E>) OkGood.INSTANCE;
     }
 
     static <T, E> @NotNull Result<T, E> from(T value, @NotNull @NonNull E error) {
-        return switch (Option.from(value)) {
-            case Option.None<T> ignored -> err(error);
-            case Option.Some<T> some -> ok(some.value());
-        };
+        return value == null ? err(error) : ok(value);
     }
 
     static <T, E> @NotNull Result<T, ? extends E> fromElse(T value,
                                                            @NotNull @NonNull Supplier<? extends @NotNull E> errorSupplier) {
-        return switch (Option.from(value)) {
-            case Option.None<T> ignored -> err(errorSupplier.get());
-            case Option.Some<T> some -> ok(some.value());
-        };
+        return value == null ? err(errorSupplier.get()) : ok(value);
     }
 }
+
+/**
+ * Holds the one {@code Ok(GOOD)} returned by {@link Result#good()}, outside the interface so that it does not become
+ * part of its public constants.
+ */
+final class OkGood {
+    static final Result.Ok<Result.GOOD, ?> INSTANCE = Result.ok(Result.GOOD);
+
+    private OkGood() {}
+}
@@ -0,0 +1,41 @@
+package the.oronco.graphqldynamicupdate.dfs.adt;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * Iterator over exactly one element, used for iterating over {@code Some} and {@code Ok} without building a stream.
+ *
+ * @author the_oronco@posteo.net
+ * @since 17/10/2026
+ */
+final class SingleIterator<T> implements Iterator<T> {
+    private T element;
+
+    SingleIterator(T element) {
+        this.element = element;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return element != null;
+    }
+
+    @Override
+    public T next() {
+        T next = element;
+        if (next == null) {
+            throw new NoSuchElementException();
+        }
+        element = null;
+        return next;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+        if (element != null) {
+            action.accept(next());
+        }
+    }
+}
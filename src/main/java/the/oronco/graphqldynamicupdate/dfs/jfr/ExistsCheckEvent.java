@@ -0,0 +1,58 @@
+package the.oronco.graphqldynamicupdate.dfs.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A single run of the {@code @Exists} constraint on one argument or input field.
+ *
+ * @author the_oronco@posteo.net
+ * @since 17/10/2026
+ */
+@Name("the.oronco.graphqldynamicupdate.ExistsCheck")
+@Label("Exists Check")
+@Category({"GraphQL Dynamic Update", "Validation"})
+@Enabled(false)
+@StackTrace(false)
+public final class ExistsCheckEvent extends Event {
+    @Label("Field")
+    @Description("Coordinates of the field the directive is used on")
+    String field;
+
+    @Label("Domain Class")
+    String domainClass;
+
+    @Label("Batch Size")
+    @Description("Number of ids the directive checked")
+    int batchSize;
+
+    @Label("Missing Count")
+    @Description("Number of checked ids that do not reference a domain object")
+    int missingCount;
+
+    @Label("Batched")
+    @Description("If the check was answered by the existence batch of the operation")
+    boolean batched;
+
+    public static ExistsCheckEvent started() {
+        var event = new ExistsCheckEvent();
+        event.begin();
+        return event;
+    }
+
+    public void finish(String field, String domainClass, int batchSize, int missingCount, boolean batched) {
+        if (shouldCommit()) {
+            this.field = field;
+            this.domainClass = domainClass;
+            this.batchSize = batchSize;
+            this.missingCount = missingCount;
+            this.batched = batched;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package the.oronco.graphqldynamicupdate.dfs.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A conversion between GraphQL inputs and domain objects by one of the MapStruct mappers.
+ *
+ * @author the_oronco@posteo.net
+ * @since 17/10/2026
+ */
+@Name("the.oronco.graphqldynamicupdate.Mapping")
+@Label("Mapping")
+@Category({"GraphQL Dynamic Update", "Mapping"})
+@Enabled(false)
+@StackTrace(false)
+public final class MappingEvent extends Event {
+    @Label("Mapping")
+    String mapping;
+
+    @Label("Source Type")
+    Class<?> sourceType;
+
+    @Label("Target Type")
+    Class<?> targetType;
+
+    public static MappingEvent started() {
+        var event = new MappingEvent();
+        event.begin();
+        return event;
+    }
+
+    public void finish(String mapping, Class<?> sourceType, Class<?> targetType) {
+        if (shouldCommit()) {
+            this.mapping = mapping;
+            this.sourceType = sourceType;
+            this.targetType = targetType;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package the.oronco.graphqldynamicupdate.dfs.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The execution of a whole GraphQL operation, from the start of its execution until its result is complete. The event
+ * is committed by the thread that completed the result.
+ *
+ * @author the_oronco@posteo.net
+ * @since 17/10/2026
+ */
+@Name("the.oronco.graphqldynamicupdate.Operation")
+@Label("GraphQL Operation")
+@Category({"GraphQL Dynamic Update", "GraphQL"})
+@Enabled(false)
+@StackTrace(false)
+public final class OperationEvent extends Event {
+    @Label("Operation Type")
+    String operationType;
+
+    @Label("Operation Name")
+    String operationName;
+
+    @Label("Error Count")
+    int errorCount;
+
+    public static OperationEvent started() {
+        var event = new OperationEvent();
+        event.begin();
+        return event;
+    }
+
+    public void finish(String operationType, String operationName, int errorCount) {
+        if (shouldCommit()) {
+            this.operationType = operationType;
+            this.operationName = operationName;
+            this.errorCount = errorCount;
+            commit();
+        }
+    }
+}
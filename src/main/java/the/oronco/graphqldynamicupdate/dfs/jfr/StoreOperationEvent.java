@@ -0,0 +1,50 @@
+package the.oronco.graphqldynamicupdate.dfs.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A read or write of the store, from its start until it was appended to the journal.
+ *
+ * @author the_oronco@posteo.net
+ * @since 17/10/2026
+ */
+@Name("the.oronco.graphqldynamicupdate.StoreOperation")
+@Label("Store Operation")
+@Category({"GraphQL Dynamic Update", "Store"})
+@Enabled(false)
+@StackTrace(false)
+public final class StoreOperationEvent extends Event {
+    @Label("Operation")
+    String operation;
+
+    @Label("Entity Type")
+    String entityType;
+
+    @Label("Id Count")
+    @Description("Number of domain objects the operation read or wrote")
+    int idCount;
+
+    /**
+     * @return a new event that already began; as long as the event is disabled this is optimized away
+     */
+    public static StoreOperationEvent started() {
+        var event = new StoreOperationEvent();
+        event.begin();
+        return event;
+    }
+
+    public void finish(String operation, String entityType, int idCount) {
+        if (shouldCommit()) {
+            this.operation = operation;
+            this.entityType = entityType;
+            this.idCount = idCount;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package the.oronco.graphqldynamicupdate.dfs.persistence;
+
+/**
+ * When an appended {@link JournalEntry} is forced to disk.
+ *
+ * @author the_oronco@posteo.net
+ * @since 17/10/2026
+ */
+public enum Durability {
+    /**
+     * Every append forces the log before it returns.
+     */
+    SYNC,
+    /**
+     * Appends wait for the next periodic force, so concurrent writers share one fsync.
+     */
+    GROUP,
+    /**
+     * Appends return immediately and the log is forced periodically. A crash can lose the last interval of writes.
+     */
+    ASYNC
+}
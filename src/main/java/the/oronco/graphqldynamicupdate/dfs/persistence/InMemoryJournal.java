@@ -0,0 +1,29 @@
+package the.oronco.graphqldynamicupdate.dfs.persistence;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Journal that does not persist anything, the store then only lives on the heap.
+ *
+ * @author the_oronco@posteo.net
+ * @since 17/10/2026
+ */
+public final class InMemoryJournal implements StoreJournal {
+
+    @Override
+    public long open(Consumer<JournalEntry> replay, Supplier<Stream<JournalEntry>> contents) {
+        return 0;
+    }
+
+    @Override
+    public void append(JournalEntry entry) {
+        // nothing to persist
+    }
+
+    @Override
+    public void close() {
+        // nothing to release
+    }
+}
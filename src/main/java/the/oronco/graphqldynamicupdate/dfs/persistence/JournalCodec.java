@@ -0,0 +1,167 @@
+package the.oronco.graphqldynamicupdate.dfs.persistence;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import the.oronco.graphqldynamicupdate.codegen.types.Material;
+import the.oronco.graphqldynamicupdate.codegen.types.Product;
+import the.oronco.graphqldynamicupdate.dfs.persistence.JournalEntry.Batch;
+import the.oronco.graphqldynamicupdate.dfs.persistence.JournalEntry.MaterialDeleted;
+import the.oronco.graphqldynamicupdate.dfs.persistence.JournalEntry.MaterialSaved;
+import the.oronco.graphqldynamicupdate.dfs.persistence.JournalEntry.ProductSaved;
+import the.oronco.graphqldynamicupdate.dfs.persistence.JournalEntry.ProductsDeleted;
+
+/**
+ * Binary encoding of {@link JournalEntry}s. Products only store the id of their material, on decoding the material is
+ * a reference that only carries that id. Saved domain objects are written with their version.
+ *
+ * @author the_oronco@posteo.net
+ * @since 17/10/2026
+ */
+final class JournalCodec {
+    private static final byte PRODUCT_SAVED = 1;
+    private static final byte PRODUCTS_DELETED = 2;
+    private static final byte MATERIAL_SAVED = 3;
+    private static final byte MATERIAL_DELETED = 4;
+    private static final byte BATCH = 5;
+
+    private JournalCodec() {
+    }
+
+    static byte[] encode(JournalEntry entry) {
+        var bytes = new ByteArrayOutputStream(128);
+        try (var out = new DataOutputStream(bytes)) {
+            switch (entry) {
+                case ProductSaved(Product product) -> {
+                    out.writeByte(PRODUCT_SAVED);
+                    writeString(out, product.getId());
+                    out.writeLong(product.getVersion());
+                    writeString(out, product.getName());
+                    writeString(out, product.getDescription());
+                    writeDateTime(out, product.getCreatedOn());
+                    writeDateTime(out, product.getUpdatedOn());
+                    writeString(out, product.getMaterial()
+                                            .getId());
+                }
+                case ProductsDeleted(List<String> ids) -> {
+                    out.writeByte(PRODUCTS_DELETED);
+                    out.writeInt(ids.size());
+                    for (String id : ids) {
+                        writeString(out, id);
+                    }
+                }
+                case MaterialSaved(Material material) -> {
+                    out.writeByte(MATERIAL_SAVED);
+                    writeString(out, material.getId());
+                    out.writeLong(material.getVersion());
+                    writeString(out, material.getName());
+                    writeString(out, material.getDescription());
+                    writeDateTime(out, material.getCreatedOn());
+                    writeDateTime(out, material.getUpdatedOn());
+                }
+                case MaterialDeleted(String id) -> {
+                    out.writeByte(MATERIAL_DELETED);
+                    writeString(out, id);
+                }
+                case Batch(List<JournalEntry> entries) -> {
+                    out.writeByte(BATCH);
+                    out.writeInt(entries.size());
+                    for (JournalEntry batched : entries) {
+                        byte[] encoded = encode(batched);
+                        out.writeInt(encoded.length);
+                        out.write(encoded);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static JournalEntry decode(byte[] payload) throws IOException {
+        try (var in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            byte tag = in.readByte();
+            return switch (tag) {
+                case PRODUCT_SAVED -> new ProductSaved(Product.newBuilder()
+                                                              .id(readString(in))
+                                                              .version(in.readLong())
+                                                              .name(readString(in))
+                                                              .description(readString(in))
+                                                              .createdOn(readDateTime(in))
+                                                              .updatedOn(readDateTime(in))
+                                                              .material(Material.newBuilder()
+                                                                                .id(readString(in))
+                                                                                .build())
+                                                              .build());
+                case PRODUCTS_DELETED -> {
+                    int size = in.readInt();
+                    var ids = new ArrayList<String>(size);
+                    for (int i = 0; i < size; i++) {
+                        ids.add(readString(in));
+                    }
+                    yield new ProductsDeleted(ids);
+                }
+                case MATERIAL_SAVED -> new MaterialSaved(Material.newBuilder()
+                                                                 .id(readString(in))
+                                                                 .version(in.readLong())
+                                                                 .name(readString(in))
+                                                                 .description(readString(in))
+                                                                 .createdOn(readDateTime(in))
+                                                                 .updatedOn(readDateTime(in))
+                                                                 .build());
+                case MATERIAL_DELETED -> new MaterialDeleted(readString(in));
+                case BATCH -> {
+                    int size = in.readInt();
+                    var entries = new ArrayList<JournalEntry>(size);
+                    for (int i = 0; i < size; i++) {
+                        entries.add(decode(in.readNBytes(in.readInt())));
+                    }
+                    yield new Batch(entries);
+                }
+                default -> throw new IOException("Unknown journal entry tag %d!".formatted(tag));
+            };
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        return new String(in.readNBytes(length), StandardCharsets.UTF_8);
+    }
+
+    private static void writeDateTime(DataOutputStream out, OffsetDateTime value) throws IOException {
+        out.writeLong(value.toEpochSecond());
+        out.writeInt(value.getNano());
+        out.writeInt(value.getOffset()
+                          .getTotalSeconds());
+    }
+
+    private static OffsetDateTime readDateTime(DataInputStream in) throws IOException {
+        long epochSecond = in.readLong();
+        int nano = in.readInt();
+        var offset = ZoneOffset.ofTotalSeconds(in.readInt());
+        return OffsetDateTime.ofInstant(Instant.ofEpochSecond(epochSecond, nano), offset);
+    }
+}
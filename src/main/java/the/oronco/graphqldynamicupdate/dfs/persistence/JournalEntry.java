@@ -0,0 +1,27 @@
+package the.oronco.graphqldynamicupdate.dfs.persistence;
+
+import java.util.List;
+import the.oronco.graphqldynamicupdate.codegen.types.Material;
+import the.oronco.graphqldynamicupdate.codegen.types.Product;
+
+/**
+ * A single mutation of the store as it is written to a {@link StoreJournal}. Every entry carries the full new state of
+ * what it touches, so replaying an entry more than once leaves the store in the same state as replaying it once.
+ *
+ * @author the_oronco@posteo.net
+ * @since 17/10/2026
+ */
+public sealed interface JournalEntry {
+    record ProductSaved(Product product) implements JournalEntry {}
+
+    record ProductsDeleted(List<String> ids) implements JournalEntry {}
+
+    record MaterialSaved(Material material) implements JournalEntry {}
+
+    record MaterialDeleted(String id) implements JournalEntry {}
+
+    /**
+     * Entries that are written as a single record, so that they are either all replayed or none of them is.
+     */
+    record Batch(List<JournalEntry> entries) implements JournalEntry {}
+}
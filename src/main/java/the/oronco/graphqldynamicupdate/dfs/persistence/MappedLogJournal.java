@@ -0,0 +1,395 @@
+package the.oronco.graphqldynamicupdate.dfs.persistence;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import lombok.extern.slf4j.Slf4j;
+import the.oronco.graphqldynamicupdate.dfs.adt.OptionLong;
+
+/**
+ * Journal that appends every entry to a memory mapped log and periodically writes compacted snapshots.
+ * <p>
+ * The directory contains numbered generations of logs ({@code journal-<n>.log}) and snapshots
+ * ({@code snapshot-<n>.bin}). A snapshot with number {@code n} contains the state of the store from some point after log
+ * {@code n} was started, so recovery reads the newest snapshot and replays every log from its number onwards. Because
+ * entries are idempotent the snapshot does not have to be a consistent cut, it is written from the live store in the
+ * background while writers keep appending to the new log. Older generations are deleted once the snapshot is
+ * complete.
+ * <p>
+ * Every record is framed as {@code [length][crc32c][payload]}; a zero length marks the end of a log and a record with a
+ * wrong checksum is treated as a torn write, which ends recovery of that log.
+ *
+ * @author the_oronco@posteo.net
+ * @since 17/10/2026
+ */
+@Slf4j
+public final class MappedLogJournal implements StoreJournal {
+    private static final Pattern LOG_FILE = Pattern.compile("journal-(\\d+)\\.log");
+    private static final Pattern SNAPSHOT_FILE = Pattern.compile("snapshot-(\\d+)\\.bin");
+    private static final int HEADER_SIZE = 2 * Integer.BYTES;
+
+    private final Path directory;
+    private final Durability durability;
+    private final long segmentSize;
+    private final long snapshotEvery;
+    private final Duration flushInterval;
+
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final Condition flushed = appendLock.newCondition();
+    private final ScheduledExecutorService flusher;
+    private final ExecutorService snapshotter;
+
+    // guarded by appendLock
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private long bufferStart;
+    private long generation;
+    private long appendedRecords;
+    private long flushedRecords;
+    private long appendsSinceSnapshot;
+    private boolean snapshotRunning;
+    private Supplier<Stream<JournalEntry>> contents;
+
+    public MappedLogJournal(Path directory,
+                            Durability durability,
+                            long segmentSize,
+                            long snapshotEvery,
+                            Duration flushInterval) {
+        this.directory = directory;
+        this.durability = durability;
+        this.segmentSize = segmentSize;
+        this.snapshotEvery = snapshotEvery;
+        this.flushInterval = flushInterval;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                                                                        .name("store-journal-flusher")
+                                                                        .daemon()
+                                                                        .factory());
+        this.snapshotter = Executors.newSingleThreadExecutor(Thread.ofPlatform()
+                                                                   .name("store-journal-snapshotter")
+                                                                   .daemon()
+                                                                   .factory());
+    }
+
+    @Override
+    public long open(Consumer<JournalEntry> replay, Supplier<Stream<JournalEntry>> contents) {
+        appendLock.lock();
+        try {
+            this.contents = contents;
+            Files.createDirectories(directory);
+
+            var replayed = new long[1];
+            Consumer<JournalEntry> counting = entry -> {
+                replay.accept(entry);
+                replayed[0]++;
+            };
+
+            OptionLong newestSnapshot = newestGeneration(SNAPSHOT_FILE);
+            if (newestSnapshot instanceof OptionLong.Some snapshot) {
+                replayFile(snapshotFile(snapshot.value()), counting);
+            }
+            long snapshotGeneration = newestSnapshot.unwrapOr(0);
+
+            long[] logGenerations = LongStream.of(generations(LOG_FILE))
+                                              .filter(g -> g >= snapshotGeneration)
+                                              .toArray();
+            long validEnd = 0;
+            for (long logGeneration : logGenerations) {
+                validEnd = replayFile(logFile(logGeneration), counting);
+            }
+
+            if (logGenerations.length == 0) {
+                generation = Math.max(snapshotGeneration, 1);
+                validEnd = 0;
+            } else {
+                generation = logGenerations[logGenerations.length - 1];
+            }
+            channel = FileChannel.open(logFile(generation),
+                                       StandardOpenOption.CREATE,
+                                       StandardOpenOption.READ,
+                                       StandardOpenOption.WRITE);
+            // drop a possibly torn tail so that it cannot be mistaken for a record later on
+            channel.truncate(validEnd);
+            map(validEnd, segmentSize);
+
+            if (durability != Durability.SYNC) {
+                long interval = flushInterval.toNanos();
+                flusher.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.NANOSECONDS);
+            }
+            return replayed[0];
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not recover the store from %s!".formatted(directory), e);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    @Override
+    public void append(JournalEntry entry) {
+        byte[] payload = JournalCodec.encode(entry);
+        var crc = new CRC32C();
+        crc.update(payload);
+
+        appendLock.lock();
+        try {
+            if (buffer.remaining() < HEADER_SIZE + payload.length) {
+                buffer.force();
+                map(bufferStart + buffer.position(), Math.max(segmentSize, HEADER_SIZE + payload.length));
+            }
+            buffer.putInt(payload.length)
+                  .putInt((int) crc.getValue())
+                  .put(payload);
+            long record = ++appendedRecords;
+
+            switch (durability) {
+                case SYNC -> {
+                    buffer.force();
+                    flushedRecords = record;
+                }
+                case GROUP -> {
+                    while (flushedRecords < record) {
+                        flushed.awaitUninterruptibly();
+                    }
+                }
+                case ASYNC -> {
+                    // forced by the flusher
+                }
+            }
+
+            if (++appendsSinceSnapshot >= snapshotEvery && !snapshotRunning) {
+                startSnapshot();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not append to the journal in %s!".formatted(directory), e);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private void flush() {
+        MappedByteBuffer toForce;
+        long target;
+        appendLock.lock();
+        try {
+            if (flushedRecords == appendedRecords) {
+                return;
+            }
+            toForce = buffer;
+            target = appendedRecords;
+        } finally {
+            appendLock.unlock();
+        }
+
+        try {
+            // records of earlier buffers were forced when the buffer was replaced
+            toForce.force();
+        } catch (UncheckedIOException e) {
+            log.error("Could not force the journal in {}, retrying with the next flush.", directory, e);
+            return;
+        }
+
+        appendLock.lock();
+        try {
+            flushedRecords = Math.max(flushedRecords, target);
+            flushed.signalAll();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private void map(long position, long size) throws IOException {
+        bufferStart = position;
+        buffer = channel.map(MapMode.READ_WRITE, position, size);
+    }
+
+    /**
+     * Switches to a new log generation and writes the snapshot for it in the background. Must hold the append lock.
+     */
+    private void startSnapshot() throws IOException {
+        buffer.force();
+        flushedRecords = appendedRecords;
+        flushed.signalAll();
+        channel.close();
+
+        long snapshotGeneration = ++generation;
+        channel = FileChannel.open(logFile(snapshotGeneration),
+                                   StandardOpenOption.CREATE_NEW,
+                                   StandardOpenOption.READ,
+                                   StandardOpenOption.WRITE);
+        map(0, segmentSize);
+        appendsSinceSnapshot = 0;
+        snapshotRunning = true;
+
+        snapshotter.execute(() -> {
+            try {
+                writeSnapshot(snapshotGeneration);
+                deleteGenerationsBefore(snapshotGeneration);
+            } catch (IOException | UncheckedIOException e) {
+                log.error("Could not write the snapshot {} of the store, keeping the older journal.", snapshotGeneration, e);
+            } finally {
+                appendLock.lock();
+                try {
+                    snapshotRunning = false;
+                } finally {
+                    appendLock.unlock();
+                }
+            }
+        });
+    }
+
+    private void writeSnapshot(long snapshotGeneration) throws IOException {
+        Path target = snapshotFile(snapshotGeneration);
+        Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        try (var snapshotChannel = FileChannel.open(temporary,
+                                                    StandardOpenOption.CREATE,
+                                                    StandardOpenOption.TRUNCATE_EXISTING,
+                                                    StandardOpenOption.WRITE);
+             var out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(snapshotChannel), 1 << 16));
+             Stream<JournalEntry> entries = contents.get()) {
+            var crc = new CRC32C();
+            for (Iterator<JournalEntry> it = entries.iterator(); it.hasNext(); ) {
+                byte[] payload = JournalCodec.encode(it.next());
+                crc.reset();
+                crc.update(payload);
+                out.writeInt(payload.length);
+                out.writeInt((int) crc.getValue());
+                out.write(payload);
+            }
+            out.writeInt(0);
+            out.flush();
+            snapshotChannel.force(true);
+        }
+        Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private void deleteGenerationsBefore(long snapshotGeneration) throws IOException {
+        for (long logGeneration : generations(LOG_FILE)) {
+            if (logGeneration < snapshotGeneration) {
+                Files.deleteIfExists(logFile(logGeneration));
+            }
+        }
+        for (long olderSnapshot : generations(SNAPSHOT_FILE)) {
+            if (olderSnapshot < snapshotGeneration) {
+                Files.deleteIfExists(snapshotFile(olderSnapshot));
+            }
+        }
+    }
+
+    /**
+     * Replays all intact records of the file.
+     *
+     * @return the position after the last intact record
+     */
+    private static long replayFile(Path file, Consumer<JournalEntry> replay) throws IOException {
+        long position = 0;
+        var crc = new CRC32C();
+        try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            while (true) {
+                int length;
+                int checksum;
+                byte[] payload;
+                try {
+                    length = in.readInt();
+                    if (length <= 0) {
+                        return position;
+                    }
+                    checksum = in.readInt();
+                    payload = in.readNBytes(length);
+                } catch (EOFException e) {
+                    return position;
+                }
+                if (payload.length < length) {
+                    return position;
+                }
+                crc.reset();
+                crc.update(payload);
+                if ((int) crc.getValue() != checksum) {
+                    log.warn("Found a torn record in {} at position {}, ignoring the rest of it.", file, position);
+                    return position;
+                }
+                replay.accept(JournalCodec.decode(payload));
+                position += HEADER_SIZE + length;
+            }
+        }
+    }
+
+    private OptionLong newestGeneration(Pattern pattern) throws IOException {
+        long[] all = generations(pattern);
+        return all.length == 0 ? OptionLong.none() : OptionLong.some(all[all.length - 1]);
+    }
+
+    /**
+     * @return the generations of all files matching the pattern in ascending order
+     */
+    private long[] generations(Pattern pattern) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> pattern.matcher(file.getFileName()
+                                                         .toString()))
+                        .filter(Matcher::matches)
+                        .mapToLong(matcher -> Long.parseLong(matcher.group(1)))
+                        .sorted()
+                        .toArray();
+        }
+    }
+
+    private Path logFile(long logGeneration) {
+        return directory.resolve("journal-%d.log".formatted(logGeneration));
+    }
+
+    private Path snapshotFile(long snapshotGeneration) {
+        return directory.resolve("snapshot-%d.bin".formatted(snapshotGeneration));
+    }
+
+    @Override
+    public void close() {
+        flusher.shutdown();
+        snapshotter.shutdown();
+        try {
+            snapshotter.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                  .interrupt();
+        }
+        appendLock.lock();
+        try {
+            if (buffer != null) {
+                buffer.force();
+                flushedRecords = appendedRecords;
+                flushed.signalAll();
+            }
+            if (channel != null) {
+                channel.close();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package the.oronco.graphqldynamicupdate.dfs.persistence;
+
+import java.io.Closeable;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Persistence backend of the store. The store appends every mutation to the journal before it applies it in memory,
+ * while holding the locks of the ids it touched throughout, so the journal sees the mutations of a single id in the
+ * order they are applied and a mutation whose append failed is never applied.
+ *
+ * @author the_oronco@posteo.net
+ * @since 17/10/2026
+ */
+public interface StoreJournal extends Closeable {
+
+    /**
+     * Recovers the persisted state and prepares the journal for appending.
+     *
+     * @param replay   receives every recovered entry in the order it has to be applied
+     * @param contents supplies the current contents of the store whenever the journal decides to write a snapshot; it
+     *                 may be called concurrently with writes to the store, but includes every entry that was appended
+     *                 before it was called
+     *
+     * @return the number of entries that were replayed
+     */
+    long open(Consumer<JournalEntry> replay, Supplier<Stream<JournalEntry>> contents);
+
+    /**
+     * Appends the entry. Depending on the durability of the journal this only returns once the entry is on disk.
+     *
+     * @param entry the mutation that is about to be applied to the store
+     *
+     * @throws java.io.UncheckedIOException if the entry could not be written
+     */
+    void append(JournalEntry entry);
+
+    @Override
+    void close();
+}
@@ -0,0 +1,90 @@
+package the.oronco.graphqldynamicupdate.dfs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import the.oronco.graphqldynamicupdate.codegen.types.Material;
+import the.oronco.graphqldynamicupdate.codegen.types.Product;
+
+/**
+ * Round trips through the {@link CompactRows} codecs, in full and with a {@link Projection}.
+ *
+ * @author the_oronco@posteo.net
+ * @since 17/10/2026
+ */
+class CompactRowsTest {
+    private static final OffsetDateTime CREATED_ON = OffsetDateTime.of(2024, 2, 24, 13, 37, 0, 123_456_789,
+                                                                       ZoneOffset.ofHours(2));
+    private static final OffsetDateTime UPDATED_ON = OffsetDateTime.of(2026, 10, 17, 8, 0, 0, 1,
+                                                                       ZoneOffset.ofHoursMinutes(-3, -30));
+    private static final Projection NAME_ONLY = new Projection(false, true, false, false, false, false);
+
+    private final UUID materialId = UUID.randomUUID();
+    private final Product product = Product.newBuilder()
+                                           .id(UUID.randomUUID()
+                                                   .toString())
+                                           .version(3L)
+                                           .name("knoif")
+                                           .description("No running with knoifs!")
+                                           .createdOn(CREATED_ON)
+                                           .updatedOn(UPDATED_ON)
+                                           .material(Store.materialReference(materialId))
+                                           .build();
+    private final Material material = Material.newBuilder()
+                                              .id(materialId.toString())
+                                              .version(7L)
+                                              .name("steel")
+                                              .description("What a steel!")
+                                              .createdOn(CREATED_ON)
+                                              .updatedOn(UPDATED_ON)
+                                              .build();
+
+    @Test
+    void productsAreDecodedAsTheyWereEncoded() {
+        var codec = CompactRows.PRODUCTS;
+
+        assertEquals(product, codec.decode(codec.encode(product)));
+        assertEquals(product, codec.decode(codec.encode(product), Projection.ALL));
+    }
+
+    @Test
+    void materialsAreDecodedAsTheyWereEncoded() {
+        var codec = CompactRows.MATERIALS;
+
+        assertEquals(material, codec.decode(codec.encode(material)));
+        assertEquals(material, codec.decode(codec.encode(material), Projection.ALL));
+    }
+
+    @Test
+    void onlyTheProjectedFieldsOfAProductAreDecoded() {
+        var codec = CompactRows.PRODUCTS;
+
+        var decoded = codec.decode(codec.encode(product), NAME_ONLY);
+
+        assertEquals(product.getId(), decoded.getId());
+        assertEquals("knoif", decoded.getName());
+        assertNull(decoded.getVersion());
+        assertNull(decoded.getDescription());
+        assertNull(decoded.getCreatedOn());
+        assertNull(decoded.getUpdatedOn());
+        assertNull(decoded.getMaterial());
+    }
+
+    @Test
+    void onlyTheProjectedFieldsOfAMaterialAreDecoded() {
+        var codec = CompactRows.MATERIALS;
+
+        var decoded = codec.decode(codec.encode(material), new Projection(true, false, false, false, true, false));
+
+        assertEquals(material.getId(), decoded.getId());
+        assertEquals(7L, decoded.getVersion());
+        assertEquals(UPDATED_ON, decoded.getUpdatedOn());
+        assertNull(decoded.getName());
+        assertNull(decoded.getDescription());
+        assertNull(decoded.getCreatedOn());
+    }
+}
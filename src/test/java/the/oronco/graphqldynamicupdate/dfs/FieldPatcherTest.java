@@ -0,0 +1,88 @@
+package the.oronco.graphqldynamicupdate.dfs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import the.oronco.graphqldynamicupdate.codegen.types.Product;
+
+/**
+ * Patches products through a {@link FieldPatcher} like the partial updates of the data fetchers do.
+ *
+ * @author the_oronco@posteo.net
+ * @since 17/10/2026
+ */
+class FieldPatcherTest {
+    private final FieldPatcher<Product> patcher = FieldPatcher.of(Product.class, "name", "description");
+    private final Product product = Product.newBuilder()
+                                           .id(UUID.randomUUID()
+                                                   .toString())
+                                           .name("knoif")
+                                           .description("No running with knoifs!")
+                                           .build();
+
+    @Test
+    void onlyTheFieldsOfThePatchAreSet() {
+        var patched = patcher.apply(product, Map.of("name", "spoon"));
+
+        assertSame(product, patched);
+        assertEquals("spoon", product.getName());
+        assertEquals("No running with knoifs!", product.getDescription());
+    }
+
+    @Test
+    void nullValuesLeaveTheFieldUnchanged() {
+        var patch = new HashMap<String, Object>();
+        patch.put("name", null);
+        patch.put("description", "Running with spoons is fine.");
+
+        patcher.apply(product, patch);
+
+        assertEquals("knoif", product.getName());
+        assertEquals("Running with spoons is fine.", product.getDescription());
+    }
+
+    @Test
+    void plansAreReusedForEqualSetsOfFields() {
+        var patch = new LinkedHashMap<String, Object>();
+        patch.put("name", "spoon");
+        patch.put("description", "Running with spoons is fine.");
+        var reordered = new LinkedHashMap<String, Object>();
+        reordered.put("description", "A fork.");
+        reordered.put("name", "fork");
+
+        patcher.apply(product, patch);
+        patcher.apply(product, reordered);
+        patcher.apply(product, Map.of("name", "knoif"));
+        patcher.apply(product, Map.of("name", "spork"));
+
+        assertEquals(2, patcher.compiledPlans());
+        assertEquals("spork", product.getName());
+        assertEquals("A fork.", product.getDescription());
+    }
+
+    @Test
+    void unknownFieldsAreRejected() {
+        var patch = Map.of("name", "spoon", "version", 7L);
+
+        assertThrows(IllegalArgumentException.class, () -> patcher.apply(product, patch));
+        assertEquals("knoif", product.getName());
+        assertEquals(0, patcher.compiledPlans());
+    }
+
+    @Test
+    void valuesOfTheWrongTypeAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> patcher.apply(product, Map.of("name", 42)));
+        assertEquals("knoif", product.getName());
+    }
+
+    @Test
+    void fieldsWithoutASetterCannotBePatched() {
+        assertThrows(IllegalArgumentException.class, () -> FieldPatcher.of(Product.class, "weight"));
+    }
+}
@@ -0,0 +1,167 @@
+package the.oronco.graphqldynamicupdate.dfs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.Test;
+import the.oronco.graphqldynamicupdate.dfs.Snapshots.Commit;
+import the.oronco.graphqldynamicupdate.dfs.adt.Option;
+
+/**
+ * Visibility of the versions of a {@link MvccIndex} and their reclamation by {@link Snapshots}.
+ *
+ * @author the_oronco@posteo.net
+ * @since 17/10/2026
+ */
+class MvccIndexTest {
+    private final StripedLock locks = new StripedLock(16);
+    private final Snapshots snapshots = new Snapshots(locks);
+    private final MvccIndex<String> index = new MvccIndex<>(RowCodec.identity());
+    private final UUID id = UUID.randomUUID();
+
+    @Test
+    void stagedVersionsAreInvisibleUntilCommitted() {
+        write(id, "first");
+
+        var commit = new Commit();
+        assertEquals("first", index.stage(commit, id, "second"));
+        var other = UUID.randomUUID();
+        index.stage(commit, other, "other");
+
+        assertEquals("second", index.staged(id));
+        assertEquals("first", index.latest(id));
+        assertNull(index.latest(other));
+        assertEquals(List.of("first"), index.values(Snapshots.LATEST));
+        assertEquals(List.of("first"), index.page(Snapshots.LATEST, Option.none(), 10)
+                                            .items());
+
+        snapshots.commit(commit);
+
+        assertEquals("second", index.latest(id));
+        assertEquals("other", index.latest(other));
+    }
+
+    @Test
+    void aSnapshotSeesAllOrNoneOfACommit() {
+        var other = UUID.randomUUID();
+        var commit = new Commit();
+        index.stage(commit, id, "first");
+        index.stage(commit, other, "other");
+
+        try (var before = snapshots.open()) {
+            snapshots.commit(commit);
+            try (var after = snapshots.open()) {
+                assertNull(index.get(id, before.timestamp()));
+                assertNull(index.get(other, before.timestamp()));
+                assertEquals("first", index.get(id, after.timestamp()));
+                assertEquals("other", index.get(other, after.timestamp()));
+            }
+        }
+    }
+
+    @Test
+    void anOpenSnapshotKeepsItsVersionsUntilClosed() {
+        write(id, "first");
+        var snapshot = snapshots.open();
+        write(id, "second");
+        snapshots.reclaim();
+
+        assertEquals("first", index.get(id, snapshot.timestamp()));
+        assertEquals("second", index.latest(id));
+
+        snapshot.close();
+
+        assertNull(index.get(id, snapshot.timestamp()), "the old version was not reclaimed");
+        assertEquals("second", index.latest(id));
+    }
+
+    @Test
+    void aDeletedIdIsRemovedOnceNoSnapshotSeesItAnymore() {
+        write(id, "first");
+        var snapshot = snapshots.open();
+        write(id, null);
+        snapshots.reclaim();
+
+        assertNull(index.latest(id));
+        assertEquals("first", index.get(id, snapshot.timestamp()));
+        assertEquals(List.of("first"), index.page(snapshot.timestamp(), Option.none(), 10)
+                                            .items());
+        assertEquals(1, index.estimatedSize());
+
+        snapshot.close();
+
+        assertEquals(0, index.estimatedSize());
+        assertEquals(List.of(), index.page(snapshot.timestamp(), Option.none(), 10)
+                                     .items());
+    }
+
+    @Test
+    void aDeletionWhoseStripeIsHeldIsReclaimedLater() throws Exception {
+        write(id, "first");
+        write(id, null);
+        var locked = new CountDownLatch(1);
+        var reclaimed = new CountDownLatch(1);
+        try (var executor = Executors.newSingleThreadExecutor()) {
+            var writer = executor.submit(() -> {
+                try (var ignored = locks.lock(id)) {
+                    locked.countDown();
+                    reclaimed.await();
+                }
+                return null;
+            });
+            locked.await();
+            snapshots.reclaim();
+            assertEquals(1, index.estimatedSize());
+            reclaimed.countDown();
+            writer.get();
+        }
+
+        snapshots.reclaim();
+
+        assertEquals(0, index.estimatedSize());
+    }
+
+    @Test
+    void existenceIsCheckedInTheSnapshot() {
+        write(id, "first");
+        try (var snapshot = snapshots.open()) {
+            write(id, null);
+            var created = UUID.randomUUID();
+            write(created, "created");
+
+            assertTrue(index.containsKey(id, snapshot.timestamp()));
+            assertFalse(index.containsKey(created, snapshot.timestamp()));
+            assertFalse(index.containsKey(id));
+            assertTrue(index.containsKey(created));
+        }
+    }
+
+    @Test
+    void closingASnapshotTwiceReleasesItOnce() {
+        write(id, "first");
+        var closedTwice = snapshots.open();
+        var stillOpen = snapshots.open();
+        write(id, "second");
+
+        closedTwice.close();
+        closedTwice.close();
+
+        assertEquals("first", index.get(id, stillOpen.timestamp()));
+
+        stillOpen.close();
+
+        assertNull(index.get(id, stillOpen.timestamp()));
+    }
+
+    private void write(UUID id, String value) {
+        var commit = new Commit();
+        index.stage(commit, id, value);
+        snapshots.commit(commit);
+    }
+}
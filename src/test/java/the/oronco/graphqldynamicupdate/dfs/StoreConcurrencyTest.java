@@ -0,0 +1,156 @@
+package the.oronco.graphqldynamicupdate.dfs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.Test;
+import the.oronco.graphqldynamicupdate.codegen.types.FailureType;
+import the.oronco.graphqldynamicupdate.codegen.types.Material;
+import the.oronco.graphqldynamicupdate.codegen.types.Product;
+import the.oronco.graphqldynamicupdate.dfs.adt.OptionLong;
+import the.oronco.graphqldynamicupdate.dfs.persistence.InMemoryJournal;
+
+/**
+ * Races writers of products against deletions of the materials those products use.
+ *
+ * @author the_oronco@posteo.net
+ * @since 17/10/2026
+ */
+class StoreConcurrencyTest {
+    private static final int UPDATES = 100_000;
+    private static final int MATERIALS = 2_000;
+
+    @Test
+    void updateProductsNeverLetsAReferencedMaterialBeDeleted() throws Exception {
+        raceAgainstDeleteMaterial((store, productId) -> {
+            for (int round = 0; round < UPDATES; round++) {
+                store.updateProducts(List.of(rename(productId, "round " + round)));
+            }
+        });
+    }
+
+    @Test
+    void updateProductNeverLetsAReferencedMaterialBeDeleted() throws Exception {
+        raceAgainstDeleteMaterial((store, productId) -> {
+            for (int round = 0; round < UPDATES; round++) {
+                store.updateProduct(rename(productId, "round " + round));
+            }
+        });
+    }
+
+    @Test
+    void saveProductNeverReferencesADeletedMaterial() throws Exception {
+        var store = new Store(new InMemoryJournal());
+        var materialIds = new ArrayList<UUID>(MATERIALS);
+        for (int i = 0; i < MATERIALS; i++) {
+            materialIds.add(UUID.fromString(store.saveMaterial(material())
+                                                 .getId()));
+        }
+
+        var start = new CountDownLatch(1);
+        try (var executor = Executors.newFixedThreadPool(2)) {
+            var saves = executor.submit(() -> {
+                start.await();
+                materialIds.forEach(materialId -> store.saveProduct(product(materialId)));
+                return null;
+            });
+            var deletes = executor.submit(() -> {
+                start.await();
+                materialIds.forEach(store::deleteMaterial);
+                return null;
+            });
+            start.countDown();
+            saves.get();
+            deletes.get();
+        }
+
+        try (var snapshot = store.snapshot()) {
+            for (Product product : store.findAllProducts(snapshot)) {
+                UUID materialId = UUID.fromString(product.getMaterial()
+                                                         .getId());
+                assertTrue(store.findMaterialById(materialId)
+                                .isSome(), "the product %s references a deleted material".formatted(product.getId()));
+            }
+        }
+    }
+
+    /**
+     * The material is only used by a single product, so its references are empty whenever the one of the product is
+     * missing, and the deletion is retried as fast as possible while the product is updated.
+     */
+    private static void raceAgainstDeleteMaterial(Updater updater) throws Exception {
+        var store = new Store(new InMemoryJournal());
+        UUID materialId = UUID.fromString(store.saveMaterial(material())
+                                               .getId());
+        UUID productId = UUID.fromString(store.saveProduct(product(materialId))
+                                              .expect("the material exists")
+                                              .getId());
+
+        var start = new CountDownLatch(1);
+        var deleted = new ArrayList<Material>();
+        try (var executor = Executors.newFixedThreadPool(2)) {
+            var updates = executor.submit(() -> {
+                start.await();
+                updater.update(store, productId);
+                return null;
+            });
+            var deletes = executor.submit(() -> {
+                start.await();
+                while (!updates.isDone()) {
+                    store.deleteMaterial(materialId)
+                         .inspectErr(failure -> assertEquals(FailureType.ReferencedByOther, failure.getKind()))
+                         .inspect(deleted::add);
+                }
+                return null;
+            });
+            start.countDown();
+            updates.get();
+            deletes.get();
+        }
+
+        assertTrue(deleted.isEmpty(), "the material was deleted while its product still used it");
+        assertEquals(Set.of(productId), store.findProductIdsByMaterialId(materialId));
+    }
+
+    private static VersionedUpdate<Product> rename(UUID id, String name) {
+        return new VersionedUpdate<>(id, OptionLong.none(), product -> {
+            product.setName(name);
+            return product;
+        });
+    }
+
+    private static Material material() {
+        return Material.newBuilder()
+                       .id(UUID.randomUUID()
+                               .toString())
+                       .name("steel")
+                       .description("What a steel!")
+                       .createdOn(OffsetDateTime.now())
+                       .updatedOn(OffsetDateTime.now())
+                       .build();
+    }
+
+    private static Product product(UUID materialId) {
+        return Product.newBuilder()
+                      .id(UUID.randomUUID()
+                              .toString())
+                      .name("knoif")
+                      .description("No running with knoifs!")
+                      .createdOn(OffsetDateTime.now())
+                      .updatedOn(OffsetDateTime.now())
+                      .material(Store.materialReference(materialId))
+                      .build();
+    }
+
+    @FunctionalInterface
+    private interface Updater {
+        void update(Store store, UUID productId);
+    }
+}
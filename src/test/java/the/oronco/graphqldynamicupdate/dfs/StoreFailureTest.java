@@ -0,0 +1,184 @@
+package the.oronco.graphqldynamicupdate.dfs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import the.oronco.graphqldynamicupdate.codegen.types.FailureType;
+import the.oronco.graphqldynamicupdate.codegen.types.Material;
+import the.oronco.graphqldynamicupdate.codegen.types.Product;
+import the.oronco.graphqldynamicupdate.dfs.StoreMetrics.Operation;
+import the.oronco.graphqldynamicupdate.dfs.adt.Option;
+import the.oronco.graphqldynamicupdate.dfs.adt.OptionLong;
+import the.oronco.graphqldynamicupdate.dfs.persistence.InMemoryJournal;
+import the.oronco.graphqldynamicupdate.dfs.persistence.JournalEntry;
+import the.oronco.graphqldynamicupdate.dfs.persistence.StoreJournal;
+
+/**
+ * Writes that fail half way leave the store as it was before.
+ *
+ * @author the_oronco@posteo.net
+ * @since 17/10/2026
+ */
+class StoreFailureTest {
+    private final FailingJournal journal = new FailingJournal();
+    private final Store store = new Store(journal);
+    private final UUID materialId = UUID.fromString(store.saveMaterial(material())
+                                                         .getId());
+
+    @Test
+    void updateProductsStagesNothingIfAChangeThrows() {
+        UUID renamed = saveProduct();
+        UUID broken = saveProduct();
+
+        assertThrows(IllegalArgumentException.class,
+                     () -> store.updateProducts(List.of(rename(renamed, "renamed"),
+                                                        new VersionedUpdate<>(broken, OptionLong.none(), product -> {
+                                                            throw new IllegalArgumentException("broken change");
+                                                        }))));
+
+        assertEquals("knoif", store.findProductById(renamed)
+                                   .expect("the product was saved")
+                                   .getName());
+        try (var snapshot = store.snapshot()) {
+            assertTrue(store.findProductsByNamePage(snapshot, "renamed", Option.none(), 10, Projection.ALL)
+                            .items()
+                            .isEmpty());
+        }
+
+        var updated = store.updateProduct(rename(renamed, "renamed"))
+                           .expect("the product exists");
+        assertEquals(2L, updated.getVersion());
+        assertEquals("renamed", store.findProductById(renamed)
+                                     .expect("the product was saved")
+                                     .getName());
+    }
+
+    @Test
+    void writesWhoseAppendFailsAreNotApplied() {
+        UUID kept = saveProduct();
+        UUID unused = UUID.fromString(store.saveMaterial(material())
+                                           .getId());
+        int products = countProducts();
+        journal.failing = true;
+
+        var unsaved = product(materialId);
+        assertThrows(UncheckedIOException.class, () -> store.saveProduct(unsaved));
+        assertThrows(UncheckedIOException.class, () -> store.updateProduct(rename(kept, "renamed")));
+        assertThrows(UncheckedIOException.class, () -> store.updateProducts(List.of(rename(kept, "renamed"))));
+        assertThrows(UncheckedIOException.class, () -> store.deleteProducts(List.of(kept)));
+        assertThrows(UncheckedIOException.class, () -> store.deleteMaterial(unused));
+
+        assertEquals(products, countProducts());
+        assertTrue(store.findProductById(UUID.fromString(unsaved.getId()))
+                        .isNone());
+        assertTrue(store.findMaterialById(unused)
+                        .isSome());
+        var product = store.findProductById(kept)
+                           .expect("the deletion was not applied");
+        assertEquals("knoif", product.getName());
+        assertEquals(1L, product.getVersion());
+        try (var snapshot = store.snapshot()) {
+            assertTrue(store.findProductsByNamePage(snapshot, "renamed", Option.none(), 10, Projection.ALL)
+                            .items()
+                            .isEmpty());
+        }
+
+        journal.failing = false;
+        assertEquals(2L, store.updateProduct(rename(kept, "renamed"))
+                              .expect("the product exists")
+                              .getVersion());
+    }
+
+    @Test
+    void failedDeletionsAreRecorded() {
+        var recorded = new ArrayList<Operation>();
+        StoreMetrics metrics = (operation, startNanos, entities) -> recorded.add(operation);
+        var recordingStore = new Store(new InMemoryJournal(), metrics);
+        recorded.clear();
+
+        recordingStore.deleteProducts(List.of(UUID.randomUUID()))
+                      .inspect(deleted -> fail("nothing could be deleted"))
+                      .inspectErr(failure -> assertEquals(FailureType.Missing, failure.getKind()));
+
+        assertEquals(List.of(Operation.DELETE_PRODUCTS), recorded);
+    }
+
+    private int countProducts() {
+        try (var snapshot = store.snapshot()) {
+            return store.findAllProducts(snapshot)
+                        .size();
+        }
+    }
+
+    private UUID saveProduct() {
+        return UUID.fromString(store.saveProduct(product(materialId))
+                                    .expect("the material exists")
+                                    .getId());
+    }
+
+    private static VersionedUpdate<Product> rename(UUID id, String name) {
+        return new VersionedUpdate<>(id, OptionLong.none(), product -> {
+            product.setName(name);
+            return product;
+        });
+    }
+
+    /**
+     * Journal whose appends fail like a full disk would, while {@link #failing} is set.
+     */
+    private static final class FailingJournal implements StoreJournal {
+        volatile boolean failing;
+
+        @Override
+        public long open(Consumer<JournalEntry> replay, Supplier<Stream<JournalEntry>> contents) {
+            return 0;
+        }
+
+        @Override
+        public void append(JournalEntry entry) {
+            if (failing) {
+                throw new UncheckedIOException(new IOException("No space left on device"));
+            }
+        }
+
+        @Override
+        public void close() {
+            // nothing to release
+        }
+    }
+
+    private static Material material() {
+        return Material.newBuilder()
+                       .id(UUID.randomUUID()
+                               .toString())
+                       .name("steel")
+                       .description("What a steel!")
+                       .createdOn(OffsetDateTime.now())
+                       .updatedOn(OffsetDateTime.now())
+                       .build();
+    }
+
+    private static Product product(UUID materialId) {
+        return Product.newBuilder()
+                      .id(UUID.randomUUID()
+                              .toString())
+                      .name("knoif")
+                      .description("No running with knoifs!")
+                      .createdOn(OffsetDateTime.now())
+                      .updatedOn(OffsetDateTime.now())
+                      .material(Store.materialReference(materialId))
+                      .build();
+    }
+}
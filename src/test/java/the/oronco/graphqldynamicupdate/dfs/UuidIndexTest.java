@@ -0,0 +1,147 @@
+package the.oronco.graphqldynamicupdate.dfs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks {@link UuidIndex} against a {@link HashMap}. With 64 segments of 16 slots a few thousand keys collide on their
+ * home slots, wrap around the end of the tables and cross several resizes of every segment.
+ *
+ * @author the_oronco@posteo.net
+ * @since 17/10/2026
+ */
+class UuidIndexTest {
+    private static final int KEYS = 4_000;
+
+    @Test
+    void everyKeyIsFoundAfterEachResize() {
+        var index = new UuidIndex<String>();
+        var keys = keys(new Random(1), KEYS);
+        for (int i = 0; i < keys.size(); i++) {
+            assertNull(index.put(keys.get(i), "value " + i));
+            for (int j = 0; j <= i; j++) {
+                assertEquals("value " + j, index.get(keys.get(j)));
+            }
+        }
+        assertEquals(KEYS, index.size());
+    }
+
+    @Test
+    void everyRemainingKeyIsFoundAfterEachRemoval() {
+        var random = new Random(2);
+        var index = new UuidIndex<UUID>();
+        var keys = keys(random, KEYS);
+        keys.forEach(key -> index.put(key, key));
+
+        Collections.shuffle(keys, random);
+        for (int i = 0; i < keys.size(); i++) {
+            assertEquals(keys.get(i), index.remove(keys.get(i)));
+            assertNull(index.remove(keys.get(i)));
+            // the backward shift must not have moved any entry behind a hole or before its home slot
+            for (int j = i + 1; j < keys.size(); j++) {
+                assertEquals(keys.get(j), index.get(keys.get(j)));
+            }
+        }
+        assertEquals(0, index.size());
+        assertTrue(index.values()
+                        .isEmpty());
+    }
+
+    @Test
+    void behavesLikeAHashMap() {
+        var random = new Random(3);
+        var index = new UuidIndex<Integer>();
+        var oracle = new HashMap<UUID, Integer>();
+        var keys = keys(random, KEYS);
+
+        for (int operation = 0; operation < 200_000; operation++) {
+            UUID key = keys.get(random.nextInt(keys.size()));
+            switch (random.nextInt(3)) {
+                case 0 -> assertEquals(oracle.put(key, operation), index.put(key, operation));
+                case 1 -> assertEquals(oracle.remove(key), index.remove(key));
+                default -> assertEquals(oracle.get(key), index.get(key));
+            }
+        }
+
+        assertEquals(oracle.size(), index.size());
+        for (UUID key : keys) {
+            assertEquals(oracle.get(key), index.get(key));
+            assertEquals(oracle.containsKey(key), index.containsKey(key));
+        }
+        var values = new ArrayList<>(index.values());
+        var expected = new ArrayList<>(oracle.values());
+        Collections.sort(values);
+        Collections.sort(expected);
+        assertEquals(expected, values);
+    }
+
+    /**
+     * A writer keeps inserting and removing keys, which resizes the segments and shifts the entries of the stable keys
+     * around, while a reader probes optimistically. The stable keys must always be found and the others must either be
+     * missing or have their own value.
+     */
+    @Test
+    void optimisticReadsNeverSeeATornEntry() throws Exception {
+        var random = new Random(4);
+        var index = new UuidIndex<UUID>();
+        var stable = keys(random, KEYS);
+        var churning = keys(random, KEYS);
+        stable.forEach(key -> index.put(key, key));
+
+        var start = new CountDownLatch(1);
+        var done = new AtomicBoolean();
+        try (var executor = Executors.newFixedThreadPool(2)) {
+            var writes = executor.submit(() -> {
+                start.await();
+                try {
+                    for (int round = 0; round < 50; round++) {
+                        churning.forEach(key -> index.put(key, key));
+                        churning.forEach(index::remove);
+                    }
+                } finally {
+                    done.set(true);
+                }
+                return null;
+            });
+            var reads = executor.submit(() -> {
+                start.await();
+                while (!done.get()) {
+                    for (UUID key : stable) {
+                        assertEquals(key, index.get(key));
+                    }
+                    for (UUID key : churning) {
+                        UUID value = index.get(key);
+                        assertTrue(value == null || value.equals(key), "%s was read for %s".formatted(value, key));
+                    }
+                }
+                return null;
+            });
+            start.countDown();
+            writes.get();
+            reads.get();
+        }
+
+        assertEquals(KEYS, index.size());
+    }
+
+    private static List<UUID> keys(Random random, int count) {
+        Map<UUID, Boolean> keys = new HashMap<>();
+        while (keys.size() < count) {
+            keys.put(new UUID(random.nextLong(), random.nextLong()), true);
+        }
+        return new ArrayList<>(keys.keySet());
+    }
+}
@@ -0,0 +1,75 @@
+package the.oronco.graphqldynamicupdate.dfs.adt;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.Collections;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The combinators of {@link Option} and {@link Result} that do not change a value return the instances they were given
+ * or shared ones instead of allocating new ones.
+ *
+ * @author the_oronco@posteo.net
+ * @since 17/10/2026
+ */
+class SharedInstancesTest {
+
+    @Test
+    void goodIsShared() {
+        assertSame(Result.<String>good(), Result.<Integer>good());
+        assertEquals(Result.GOOD, Result.good()
+                                        .result());
+    }
+
+    @Test
+    void noneIsShared() {
+        assertSame(Option.<String>none(), Option.<Integer>none());
+        assertSame(Option.none(), Option.from(null));
+        assertSame(Option.none(), Option.optionFrom(Optional.empty()));
+        assertSame(Option.none(), Option.some("steel")
+                                        .filter(String::isEmpty));
+    }
+
+    @Test
+    void someIsPassedThrough() {
+        Option<String> some = Option.some("steel");
+
+        assertSame(some, some.or(Option.some("iron")));
+        assertSame(some, some.orNullable("iron"));
+        assertSame(some, some.orElse(() -> Option.some("iron")));
+        assertSame(some, some.orNullableElse(() -> "iron"));
+        assertSame(some, some.xOr(Option.none()));
+        assertSame(some, Option.<String>none()
+                               .xOr(some));
+        assertSame(some, some.filter(s -> true));
+    }
+
+    @Test
+    void theUntouchedSideOfAResultIsPassedThrough() {
+        Result<String, Integer> ok = Result.ok("steel");
+        Result<String, Integer> err = Result.err(404);
+
+        assertSame(err, err.map(String::length));
+        assertSame(err, err.and(Result.ok(1)));
+        assertSame(err, err.andThen(() -> Result.ok(1)));
+        assertSame(ok, ok.mapErr(code -> "missing"));
+        assertSame(ok, ok.or(Result.ok("iron")));
+        assertSame(ok, ok.orThen(() -> Result.ok("iron")));
+    }
+
+    @Test
+    void emptyIteratorsAreShared() {
+        assertSame(Collections.emptyIterator(), Option.none()
+                                                      .iterator());
+        assertSame(Collections.emptyIterator(), Option.none()
+                                                      .iter());
+        assertSame(Collections.emptyIterator(), Result.err(404)
+                                                      .iterator());
+        assertFalse(Result.err(404)
+                          .iter()
+                          .hasNext());
+    }
+}
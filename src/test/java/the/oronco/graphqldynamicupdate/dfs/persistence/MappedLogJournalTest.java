@@ -0,0 +1,363 @@
+package the.oronco.graphqldynamicupdate.dfs.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import the.oronco.graphqldynamicupdate.codegen.types.Material;
+import the.oronco.graphqldynamicupdate.codegen.types.Product;
+import the.oronco.graphqldynamicupdate.dfs.persistence.JournalEntry.Batch;
+import the.oronco.graphqldynamicupdate.dfs.persistence.JournalEntry.MaterialDeleted;
+import the.oronco.graphqldynamicupdate.dfs.persistence.JournalEntry.MaterialSaved;
+import the.oronco.graphqldynamicupdate.dfs.persistence.JournalEntry.ProductSaved;
+import the.oronco.graphqldynamicupdate.dfs.persistence.JournalEntry.ProductsDeleted;
+
+/**
+ * Recovers the journal after clean shutdowns and after the crashes it has to survive: a torn last record, and a crash
+ * anywhere between switching to a new log generation and deleting the generations the new snapshot replaces.
+ *
+ * @author the_oronco@posteo.net
+ * @since 17/10/2026
+ */
+class MappedLogJournalTest {
+    private static final long SEGMENT_SIZE = 512;
+    private static final long NO_SNAPSHOTS = Long.MAX_VALUE;
+    private static final OffsetDateTime NOW = OffsetDateTime.of(2026, 10, 17, 12, 0, 0, 0, ZoneOffset.UTC);
+
+    @TempDir
+    Path directory;
+
+    @ParameterizedTest
+    @EnumSource(Durability.class)
+    void replaysEverythingAppendedBeforeACleanShutdown(Durability durability) throws Exception {
+        var written = new Model();
+        try (var journal = journal(durability, NO_SNAPSHOTS)) {
+            assertEquals(0, journal.open(written::apply, written::contents));
+            // concurrent writers, GROUP lets them share the periodic force
+            try (var writers = Executors.newFixedThreadPool(4)) {
+                var done = new ArrayList<Future<?>>();
+                for (int writer = 0; writer < 4; writer++) {
+                    done.add(writers.submit(() -> {
+                        for (int i = 0; i < 25; i++) {
+                            written.append(journal, saved(UUID.randomUUID(), "product"));
+                        }
+                    }));
+                }
+                for (Future<?> future : done) {
+                    future.get();
+                }
+            }
+        }
+
+        var recovered = new Model();
+        try (var journal = journal(durability, NO_SNAPSHOTS)) {
+            assertEquals(100, journal.open(recovered::apply, recovered::contents));
+        }
+        assertEquals(written.names(), recovered.names());
+    }
+
+    @Test
+    void replaysRecordsThatSpanSeveralMappedSegments() {
+        var written = new Model();
+        try (var journal = journal(Durability.SYNC, NO_SNAPSHOTS)) {
+            journal.open(written::apply, written::contents);
+            for (int i = 0; i < 50; i++) {
+                written.append(journal, saved(UUID.randomUUID(), "a product with a longer name " + i));
+            }
+            // larger than a whole segment
+            written.append(journal, saved(UUID.randomUUID(), "x".repeat((int) SEGMENT_SIZE * 2)));
+        }
+
+        var recovered = new Model();
+        try (var journal = journal(Durability.SYNC, NO_SNAPSHOTS)) {
+            assertEquals(51, journal.open(recovered::apply, recovered::contents));
+        }
+        assertEquals(written.names(), recovered.names());
+    }
+
+    @Test
+    void replaysDeletionsAndBatches() {
+        UUID kept = UUID.randomUUID();
+        UUID deleted = UUID.randomUUID();
+        UUID material = UUID.randomUUID();
+        var written = new Model();
+        try (var journal = journal(Durability.SYNC, NO_SNAPSHOTS)) {
+            journal.open(written::apply, written::contents);
+            written.append(journal, new Batch(List.of(new MaterialSaved(material(material)),
+                                                      saved(kept, "kept"),
+                                                      saved(deleted, "deleted"))));
+            written.append(journal, new ProductsDeleted(List.of(deleted.toString())));
+            written.append(journal, new MaterialDeleted(material.toString()));
+        }
+
+        var recovered = new Model();
+        try (var journal = journal(Durability.SYNC, NO_SNAPSHOTS)) {
+            journal.open(recovered::apply, recovered::contents);
+        }
+        assertEquals(Map.of(kept.toString(), "kept"), recovered.names());
+    }
+
+    @Test
+    void truncatesACorruptLastRecordOnReopen() throws IOException {
+        var entries = List.<JournalEntry>of(saved(UUID.randomUUID(), "first"),
+                                            saved(UUID.randomUUID(), "second"),
+                                            saved(UUID.randomUUID(), "third"));
+        appendAndClose(entries);
+
+        // flip the last byte of the payload of the third record
+        long lastByte = frameSize(entries.get(0)) + frameSize(entries.get(1)) + frameSize(entries.get(2)) - 1;
+        try (var log = FileChannel.open(directory.resolve("journal-1.log"),
+                                        StandardOpenOption.READ,
+                                        StandardOpenOption.WRITE)) {
+            var current = ByteBuffer.allocate(1);
+            log.read(current, lastByte);
+            log.write(ByteBuffer.wrap(new byte[]{(byte) ~current.get(0)}), lastByte);
+        }
+
+        assertTornTailIsDropped(entries);
+    }
+
+    @Test
+    void truncatesARecordThatWasOnlyPartiallyWrittenOnReopen() throws IOException {
+        var entries = List.<JournalEntry>of(saved(UUID.randomUUID(), "first"),
+                                            saved(UUID.randomUUID(), "second"),
+                                            saved(UUID.randomUUID(), "third"));
+        appendAndClose(entries);
+
+        // the crash happened in the middle of the payload of the third record
+        long torn = frameSize(entries.get(0)) + frameSize(entries.get(1)) + frameSize(entries.get(2)) / 2;
+        try (var log = FileChannel.open(directory.resolve("journal-1.log"), StandardOpenOption.WRITE)) {
+            log.truncate(torn);
+        }
+
+        assertTornTailIsDropped(entries);
+    }
+
+    /**
+     * The first two entries survive, and a record appended after the reopen is not hidden behind the torn one.
+     */
+    private void assertTornTailIsDropped(List<JournalEntry> entries) {
+        var recovered = new Model();
+        var appended = saved(UUID.randomUUID(), "fourth");
+        try (var journal = journal(Durability.SYNC, NO_SNAPSHOTS)) {
+            assertEquals(2, journal.open(recovered::apply, recovered::contents));
+            recovered.append(journal, appended);
+        }
+
+        var reopened = new Model();
+        try (var journal = journal(Durability.SYNC, NO_SNAPSHOTS)) {
+            assertEquals(3, journal.open(reopened::apply, reopened::contents));
+        }
+        var expected = new Model();
+        expected.apply(entries.get(0));
+        expected.apply(entries.get(1));
+        expected.apply(appended);
+        assertEquals(expected.names(), reopened.names());
+    }
+
+    @Test
+    void recoversFromTheNewestSnapshotAndDeletesTheGenerationsItReplaces() throws IOException {
+        var written = new Model();
+        UUID renamed = UUID.randomUUID();
+        try (var journal = journal(Durability.SYNC, 4)) {
+            journal.open(written::apply, written::contents);
+            written.append(journal, saved(renamed, "before"));
+            for (int i = 0; i < 9; i++) {
+                written.append(journal, saved(UUID.randomUUID(), "product " + i));
+            }
+            written.append(journal, saved(renamed, "after"));
+        }
+
+        // when the next snapshot starts depends on how fast the previous one was written in the background
+        var snapshots = generations("snapshot-");
+        assertEquals(1, snapshots.size(), snapshots::toString);
+        long newest = snapshots.getFirst();
+        assertTrue(newest >= 2, snapshots::toString);
+        assertEquals(List.of(newest), generations("journal-"));
+
+        var recovered = new Model();
+        try (var journal = journal(Durability.SYNC, 4)) {
+            journal.open(recovered::apply, recovered::contents);
+        }
+        assertEquals(written.names(), recovered.names());
+        assertEquals("after", recovered.names()
+                                      .get(renamed.toString()));
+    }
+
+    @Test
+    void recoversFromTheLogsWhenTheCrashHappenedBeforeTheSnapshotWasComplete() throws IOException {
+        var older = saved(UUID.randomUUID(), "older");
+        var newer = saved(UUID.randomUUID(), "newer");
+        // the journal switched to generation 2, but the snapshot never got past its temporary file
+        writeFile("journal-1.log", List.of(older));
+        writeFile("journal-2.log", List.of(newer));
+        Files.write(directory.resolve("snapshot-2.bin.tmp"), new byte[]{1, 2, 3});
+
+        var recovered = new Model();
+        try (var journal = journal(Durability.SYNC, NO_SNAPSHOTS)) {
+            assertEquals(2, journal.open(recovered::apply, recovered::contents));
+        }
+        var expected = new Model();
+        expected.apply(older);
+        expected.apply(newer);
+        assertEquals(expected.names(), recovered.names());
+    }
+
+    @Test
+    void recoversFromTheSnapshotWhenTheCrashHappenedBeforeTheOlderGenerationsWereDeleted() throws IOException {
+        UUID id = UUID.randomUUID();
+        var replaced = saved(UUID.randomUUID(), "only in the replaced log");
+        var snapshotted = saved(id, "snapshotted");
+        var newer = saved(id, "newer");
+        // the snapshot of generation 2 is complete, the older generation is still there
+        writeFile("journal-1.log", List.of(replaced));
+        writeFile("snapshot-2.bin", List.of(snapshotted));
+        writeFile("journal-2.log", List.of(newer));
+
+        var recovered = new Model();
+        try (var journal = journal(Durability.SYNC, NO_SNAPSHOTS)) {
+            assertEquals(2, journal.open(recovered::apply, recovered::contents));
+        }
+        assertEquals(Map.of(id.toString(), "newer"), recovered.names());
+    }
+
+    @Test
+    void startsEmptyWithoutAnyFiles() {
+        var recovered = new Model();
+        try (var journal = journal(Durability.SYNC, NO_SNAPSHOTS)) {
+            assertEquals(0, journal.open(recovered::apply, recovered::contents));
+        }
+        assertTrue(Files.exists(directory.resolve("journal-1.log")));
+    }
+
+    /**
+     * @return the generations of all complete files with the prefix in ascending order
+     */
+    private List<Long> generations(String prefix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName()
+                                         .toString())
+                        .filter(name -> name.startsWith(prefix) && !name.endsWith(".tmp"))
+                        .map(name -> Long.parseLong(name.substring(prefix.length(), name.lastIndexOf('.'))))
+                        .sorted()
+                        .toList();
+        }
+    }
+
+    private MappedLogJournal journal(Durability durability, long snapshotEvery) {
+        return new MappedLogJournal(directory, durability, SEGMENT_SIZE, snapshotEvery, Duration.ofMillis(1));
+    }
+
+    private void appendAndClose(List<JournalEntry> entries) {
+        var written = new Model();
+        try (var journal = journal(Durability.SYNC, NO_SNAPSHOTS)) {
+            journal.open(written::apply, written::contents);
+            entries.forEach(entry -> written.append(journal, entry));
+        }
+    }
+
+    private void writeFile(String name, List<JournalEntry> entries) throws IOException {
+        try (var out = new DataOutputStream(Files.newOutputStream(directory.resolve(name)))) {
+            var crc = new CRC32C();
+            for (JournalEntry entry : entries) {
+                byte[] payload = JournalCodec.encode(entry);
+                crc.reset();
+                crc.update(payload);
+                out.writeInt(payload.length);
+                out.writeInt((int) crc.getValue());
+                out.write(payload);
+            }
+            out.writeInt(0);
+        }
+    }
+
+    private static long frameSize(JournalEntry entry) {
+        return 2 * Integer.BYTES + JournalCodec.encode(entry).length;
+    }
+
+    private static ProductSaved saved(UUID id, String name) {
+        return new ProductSaved(Product.newBuilder()
+                                       .id(id.toString())
+                                       .version(1L)
+                                       .name(name)
+                                       .description("journal test product")
+                                       .createdOn(NOW)
+                                       .updatedOn(NOW)
+                                       .material(Material.newBuilder()
+                                                         .id(UUID.randomUUID()
+                                                                 .toString())
+                                                         .build())
+                                       .build());
+    }
+
+    private static Material material(UUID id) {
+        return Material.newBuilder()
+                       .id(id.toString())
+                       .version(1L)
+                       .name("steel")
+                       .description("journal test material")
+                       .createdOn(NOW)
+                       .updatedOn(NOW)
+                       .build();
+    }
+
+    /**
+     * Stands in for the store: applies entries like a replay does and hands its state to snapshots.
+     */
+    private static final class Model {
+        private final Map<String, Product> products = new ConcurrentHashMap<>();
+        private final Map<String, Material> materials = new ConcurrentHashMap<>();
+
+        void append(StoreJournal journal, JournalEntry entry) {
+            apply(entry);
+            journal.append(entry);
+        }
+
+        void apply(JournalEntry entry) {
+            switch (entry) {
+                case ProductSaved(Product product) -> products.put(product.getId(), product);
+                case ProductsDeleted(List<String> ids) -> ids.forEach(products::remove);
+                case MaterialSaved(Material material) -> materials.put(material.getId(), material);
+                case MaterialDeleted(String id) -> materials.remove(id);
+                case Batch(List<JournalEntry> entries) -> entries.forEach(this::apply);
+            }
+        }
+
+        Stream<JournalEntry> contents() {
+            return Stream.concat(materials.values()
+                                          .stream()
+                                          .map(MaterialSaved::new),
+                                 products.values()
+                                         .stream()
+                                         .map(ProductSaved::new));
+        }
+
+        Map<String, String> names() {
+            var names = new ConcurrentHashMap<String, String>();
+            products.forEach((id, product) -> names.put(id, product.getName()));
+            return names;
+        }
+    }
+}